@@ -0,0 +1,71 @@
+package com.mobai.systemd.web.config;
+
+import com.mobai.systemd.web.entity.ResponseResult;
+import com.mobai.systemd.web.entity.ServiceUnitInfo;
+import com.mobai.systemd.web.util.CborUtil;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * 服务单元列表列式 CBOR 消息转换器
+ * <p>
+ * 只写出 {@code ResponseResult<List<ServiceUnitInfo>>}，其余响应（包括异常响应）仍由 JSON 转换器处理。
+ *
+ * @author Qian-MoBai
+ */
+public class ServiceUnitsCborHttpMessageConverter extends AbstractGenericHttpMessageConverter<ResponseResult<List<ServiceUnitInfo>>> {
+	/**
+	 * 支持写出的类型
+	 */
+	private static final ResolvableType SERVICE_UNITS_TYPE = ResolvableType.forClassWithGenerics(ResponseResult.class,
+			ResolvableType.forClassWithGenerics(List.class, ServiceUnitInfo.class));
+
+	public ServiceUnitsCborHttpMessageConverter() {
+		super(MediaType.APPLICATION_CBOR);
+	}
+
+	@Override
+	public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+		return false;
+	}
+
+	@Override
+	public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+		return type != null && SERVICE_UNITS_TYPE.isAssignableFrom(ResolvableType.forType(type)) && canWrite(mediaType);
+	}
+
+	@Override
+	public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+		// 用于确定可返回的媒体类型，具体泛型参数由 canWrite 校验
+		return ResponseResult.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : List.of();
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		// 仅凭原始类型无法区分泛型参数，只通过带泛型的 canWrite 写出
+		return false;
+	}
+
+	@Override
+	protected void writeInternal(ResponseResult<List<ServiceUnitInfo>> result, Type type, HttpOutputMessage outputMessage) throws IOException {
+		CborUtil.writeServiceUnits(result, outputMessage.getBody());
+	}
+
+	@Override
+	public ResponseResult<List<ServiceUnitInfo>> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+		throw new HttpMessageNotReadableException("Reading CBOR is not supported", inputMessage);
+	}
+
+	@Override
+	protected ResponseResult<List<ServiceUnitInfo>> readInternal(Class<? extends ResponseResult<List<ServiceUnitInfo>>> clazz, HttpInputMessage inputMessage) {
+		throw new HttpMessageNotReadableException("Reading CBOR is not supported", inputMessage);
+	}
+}
@@ -0,0 +1,19 @@
+package com.mobai.systemd.web.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Web MVC 配置
+ *
+ * @author Qian-MoBai
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+	@Override
+	public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+		// 追加在 JSON 转换器之后，Accept 为 */* 时仍优先返回 JSON
+		builder.configureMessageConvertersList(converters -> converters.add(new ServiceUnitsCborHttpMessageConverter()));
+	}
+}
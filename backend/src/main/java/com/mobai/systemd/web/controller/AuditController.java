@@ -0,0 +1,49 @@
+package com.mobai.systemd.web.controller;
+
+import com.mobai.systemd.web.entity.AuditRecord;
+import com.mobai.systemd.web.entity.ResponseResult;
+import com.mobai.systemd.web.service.AuditService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/systemd/audit")
+class AuditController {
+	/**
+	 * 审计日志最大查询条数
+	 */
+	private static final int MAX_LIMIT = 1000;
+	/**
+	 * 审计日志服务
+	 */
+	private final AuditService auditService;
+
+	public AuditController(AuditService auditService) {
+		this.auditService = auditService;
+	}
+
+	/**
+	 * 查询审计日志
+	 *
+	 * @param unitName 服务名称
+	 * @param from     起始时间戳（毫秒）
+	 * @param to       结束时间戳（毫秒）
+	 * @param limit    最大条数
+	 * @return 审计记录列表
+	 */
+	@GetMapping
+	public ResponseResult<List<AuditRecord>> queryAuditRecords(@RequestParam(value = "unitName", required = false) String unitName,
+	                                                           @RequestParam(value = "from", defaultValue = "0") long from,
+	                                                           @RequestParam(value = "to", defaultValue = Long.MAX_VALUE + "") long to,
+	                                                           @RequestParam(value = "limit", defaultValue = "100") int limit) {
+		if (from > to || limit <= 0) {
+			throw new IllegalArgumentException("Invalid parameters");
+		}
+		return new ResponseResult<>(HttpStatus.OK, auditService.query(unitName, from, to, Math.min(limit, MAX_LIMIT)));
+	}
+}
@@ -1,17 +1,26 @@
 package com.mobai.systemd.web.controller;
 
+import com.mobai.systemd.web.entity.AuditRecord;
+import com.mobai.systemd.web.entity.ImportResult;
 import com.mobai.systemd.web.entity.ResponseResult;
 import com.mobai.systemd.web.entity.ServiceFile;
 import com.mobai.systemd.web.entity.ServiceUnitInfo;
 import com.mobai.systemd.web.entity.ServiceUnitOperation;
+import com.mobai.systemd.web.service.AuditService;
+import com.mobai.systemd.web.service.ImportException;
 import com.mobai.systemd.web.service.SystemdService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/api/systemd/service")
@@ -21,13 +30,18 @@ class SystemdController {
 	 * 系统服务管理服务
 	 */
 	private final SystemdService systemdService;
+	/**
+	 * 审计日志服务
+	 */
+	private final AuditService auditService;
 
-	public SystemdController(SystemdService systemdService) {
+	public SystemdController(SystemdService systemdService, AuditService auditService) {
 		this.systemdService = systemdService;
+		this.auditService = auditService;
 	}
 
 	/**
-	 * 列出服务单元
+	 * 列出服务单元，Accept 为 application/cbor 时以列式 CBOR 返回
 	 *
 	 * @param level 系统级别
 	 * @return 服务单元列表
@@ -38,16 +52,29 @@ class SystemdController {
 		return new ResponseResult<>(HttpStatus.OK, systemdService.listServiceUnits(level));
 	}
 
+	/**
+	 * 列出所有活跃用户的用户级服务单元，Accept 为 application/cbor 时以列式 CBOR 返回
+	 *
+	 * @return 服务单元列表
+	 */
+	@GetMapping("/users")
+	public ResponseResult<List<ServiceUnitInfo>> listAllUserServiceUnits() {
+		LOG.info("Listing service units for all users");
+		return new ResponseResult<>(HttpStatus.OK, systemdService.listAllUserServiceUnits());
+	}
+
 	/**
 	 * 操作服务单元
 	 *
+	 * @param request              请求
 	 * @param serviceUnitOperation 服务单元操作
 	 * @return 操作结果
 	 */
 	@PostMapping("/operation")
-	public ResponseResult<Boolean> operateServiceUnit(@RequestBody ServiceUnitOperation serviceUnitOperation) {
+	public ResponseResult<Boolean> operateServiceUnit(HttpServletRequest request, @RequestBody ServiceUnitOperation serviceUnitOperation) {
 		LOG.info("Operating service unit: {}", serviceUnitOperation);
-		return new ResponseResult<>(HttpStatus.OK, systemdService.operateServiceUnit(serviceUnitOperation));
+		return new ResponseResult<>(HttpStatus.OK, audit(request, serviceUnitOperation.operation(), serviceUnitOperation.level(), serviceUnitOperation.unitName(),
+				() -> systemdService.operateServiceUnit(serviceUnitOperation)));
 	}
 
 	/**
@@ -65,13 +92,116 @@ class SystemdController {
 	/**
 	 * 上传服务
 	 *
+	 * @param request     请求
 	 * @param session     session
 	 * @param serviceFile 服务文件
 	 * @return 上传结果
 	 */
 	@PostMapping("/upload")
-	public ResponseResult<Boolean> uploadService(HttpSession session, @RequestBody ServiceFile serviceFile) {
+	public ResponseResult<Boolean> uploadService(HttpServletRequest request, HttpSession session, @RequestBody ServiceFile serviceFile) {
 		LOG.info("Uploading service: {}", serviceFile);
-		return new ResponseResult<>(HttpStatus.OK, systemdService.uploadService(session, serviceFile));
+		return new ResponseResult<>(HttpStatus.OK, audit(request, "upload", serviceFile.level(), serviceFile.unitName(),
+				() -> systemdService.uploadService(session, serviceFile)));
+	}
+
+	/**
+	 * 导出服务文件
+	 *
+	 * @param level    系统级别
+	 * @param response 响应
+	 * @throws IOException IO异常
+	 */
+	@GetMapping("/export")
+	public void exportServices(@RequestParam(value = "level", defaultValue = "system") String level, HttpServletResponse response) throws IOException {
+		LOG.info("Exporting service files for level: {}", level);
+		response.setContentType("application/x-tar");
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"systemd-services.tar\"");
+		systemdService.exportServices(level, response.getOutputStream());
+	}
+
+	/**
+	 * 导入服务文件
+	 *
+	 * @param level   系统级别
+	 * @param request 请求（请求体为 tar 归档）
+	 * @return 导入结果
+	 */
+	@PostMapping(value = "/import", consumes = "application/x-tar")
+	public ResponseResult<ImportResult> importServices(@RequestParam(value = "level", defaultValue = "system") String level, HttpServletRequest request) {
+		LOG.info("Importing service files for level: {}", level);
+		return new ResponseResult<>(HttpStatus.OK, audit(request, "import", level, null, () -> {
+			ImportResult result;
+			try {
+				result = systemdService.importServices(level, request.getInputStream());
+			} catch (ImportException e) {
+				// 中途失败时已写入的文件同样需要逐个记录
+				auditImportResult(request, level, e.getResult());
+				throw e;
+			}
+			auditImportResult(request, level, result);
+			return result;
+		}));
+	}
+
+	/**
+	 * 为导入结果中的每个服务单独记录审计日志
+	 *
+	 * @param request 请求
+	 * @param level   系统级别
+	 * @param result  导入结果
+	 */
+	private void auditImportResult(HttpServletRequest request, String level, ImportResult result) {
+		String operator = operator(request);
+		long timestamp = System.currentTimeMillis();
+		for (String unitName : result.imported()) {
+			auditService.record(new AuditRecord(timestamp, operator, "import", level, unitName, true, 0, null));
+		}
+		for (String unitName : result.skipped()) {
+			auditService.record(new AuditRecord(timestamp, operator, "import", level, unitName, false, 0, "Skipped: already exists"));
+		}
+		for (String unitName : result.rejected()) {
+			auditService.record(new AuditRecord(timestamp, operator, "import", level, unitName, false, 0, "Rejected: invalid service file"));
+		}
+	}
+
+	/**
+	 * 执行特权操作并记录审计日志
+	 *
+	 * @param request   请求
+	 * @param action    操作
+	 * @param level     系统级别
+	 * @param unitName  服务名称
+	 * @param operation 特权操作
+	 * @return 操作结果
+	 */
+	private <T> T audit(HttpServletRequest request, String action, String level, String unitName, Callable<T> operation) {
+		String operator = operator(request);
+		long timestamp = System.currentTimeMillis();
+		long start = System.nanoTime();
+		try {
+			T result = operation.call();
+			boolean success = !Boolean.FALSE.equals(result);
+			auditService.record(new AuditRecord(timestamp, operator, action, level, unitName, success,
+					(System.nanoTime() - start) / 1000, null));
+			return result;
+		} catch (RuntimeException e) {
+			auditService.record(new AuditRecord(timestamp, operator, action, level, unitName, false,
+					(System.nanoTime() - start) / 1000, e.getMessage()));
+			throw e;
+		} catch (Exception e) {
+			auditService.record(new AuditRecord(timestamp, operator, action, level, unitName, false,
+					(System.nanoTime() - start) / 1000, e.getMessage()));
+			throw new RuntimeException(e.getMessage());
+		}
+	}
+
+	/**
+	 * 获取操作者，未认证时使用客户端地址
+	 *
+	 * @param request 请求
+	 * @return 操作者
+	 */
+	private static String operator(HttpServletRequest request) {
+		return request.getRemoteUser() != null ? request.getRemoteUser() : request.getRemoteAddr();
 	}
 }
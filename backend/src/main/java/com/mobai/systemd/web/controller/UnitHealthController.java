@@ -0,0 +1,102 @@
+package com.mobai.systemd.web.controller;
+
+import com.mobai.systemd.web.entity.ResponseResult;
+import com.mobai.systemd.web.entity.UnitHealth;
+import com.mobai.systemd.web.service.UnitHealthService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@RestController
+@RequestMapping("/api/systemd/health")
+class UnitHealthController {
+	/**
+	 * 单个订阅者最多积压的事件数
+	 */
+	private static final int MAX_PENDING_EVENTS = 256;
+	/**
+	 * 心跳间隔，无事件时发送注释行以发现已断开的客户端
+	 */
+	private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+	/**
+	 * 事件流超时时间，超时后正常结束，由浏览器 EventSource 自动重连
+	 */
+	private static final Duration STREAM_TIMEOUT = Duration.ofMinutes(30);
+	/**
+	 * 服务单元健康监测服务
+	 */
+	private final UnitHealthService unitHealthService;
+
+	public UnitHealthController(UnitHealthService unitHealthService) {
+		this.unitHealthService = unitHealthService;
+	}
+
+	/**
+	 * 列出失败或反复重启的服务单元
+	 *
+	 * @return 异常服务单元列表
+	 */
+	@GetMapping
+	public ResponseResult<List<UnitHealth>> listUnhealthyUnits() {
+		return new ResponseResult<>(HttpStatus.OK, unitHealthService.listUnhealthyUnits());
+	}
+
+	/**
+	 * 订阅健康状态变化事件
+	 *
+	 * @return 事件流
+	 */
+	@GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamHealthEvents() {
+		SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT.toMillis());
+		// 监听器在轮询线程中调用，只入队不做网络 IO，由独立线程发送；慢客户端的队列满时丢弃新事件
+		BlockingQueue<UnitHealth> events = new ArrayBlockingQueue<>(MAX_PENDING_EVENTS);
+		Consumer<UnitHealth> listener = events::offer;
+		Thread sender = Thread.ofVirtual().name("health-events").unstarted(() -> {
+			try {
+				while (true) {
+					UnitHealth unitHealth = events.poll(HEARTBEAT_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+					if (unitHealth == null) {
+						emitter.send(SseEmitter.event().comment("heartbeat"));
+					} else {
+						emitter.send(SseEmitter.event().name("health").data(unitHealth));
+					}
+				}
+			} catch (IOException e) {
+				// 客户端已断开
+				emitter.completeWithError(e);
+			} catch (IllegalStateException e) {
+				// 事件流已结束（如超时）
+			} catch (InterruptedException e) {
+				// 订阅已结束
+				Thread.currentThread().interrupt();
+			} finally {
+				unitHealthService.removeListener(listener);
+			}
+		});
+		Runnable unsubscribe = () -> {
+			unitHealthService.removeListener(listener);
+			sender.interrupt();
+		};
+		emitter.onCompletion(unsubscribe);
+		emitter.onTimeout(() -> {
+			unsubscribe.run();
+			emitter.complete();
+		});
+		emitter.onError(e -> unsubscribe.run());
+		unitHealthService.addListener(listener);
+		sender.start();
+		return emitter;
+	}
+}
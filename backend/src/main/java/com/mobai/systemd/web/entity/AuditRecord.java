@@ -0,0 +1,26 @@
+package com.mobai.systemd.web.entity;
+
+/**
+ * 审计记录
+ *
+ * @param timestamp      时间戳（毫秒）
+ * @param operator       操作者
+ * @param action         操作
+ * @param level          系统级别
+ * @param unitName       服务名称
+ * @param success        是否成功
+ * @param durationMicros 耗时（微秒）
+ * @param message        附加信息
+ * @author Qian-MoBai
+ */
+public record AuditRecord(
+		long timestamp,
+		String operator,
+		String action,
+		String level,
+		String unitName,
+		boolean success,
+		long durationMicros,
+		String message
+) {
+}
@@ -0,0 +1,17 @@
+package com.mobai.systemd.web.entity;
+
+import java.util.List;
+
+/**
+ * 服务文件导入结果
+ *
+ * @param imported 成功导入的服务名
+ * @param skipped  已存在而跳过的服务名
+ * @param rejected 未通过校验而拒绝的服务名
+ */
+public record ImportResult(
+		List<String> imported,
+		List<String> skipped,
+		List<String> rejected
+) {
+}
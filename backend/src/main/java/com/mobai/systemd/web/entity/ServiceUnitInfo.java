@@ -6,10 +6,12 @@ package com.mobai.systemd.web.entity;
  * @param unitFile 服务名称
  * @param state    服务加载状态
  * @param preset   服务运行状态
+ * @param owner    所属用户（仅多用户列表）
  */
 public record ServiceUnitInfo(
 		String unitFile,
 		String state,
-		String preset
+		String preset,
+		String owner
 ) {
 }
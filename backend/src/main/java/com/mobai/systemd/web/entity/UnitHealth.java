@@ -0,0 +1,24 @@
+package com.mobai.systemd.web.entity;
+
+import com.mobai.systemd.web.enums.UnitHealthStatus;
+
+/**
+ * 服务单元健康状态
+ *
+ * @param unitName    服务名称
+ * @param activeState 运行状态（ActiveState）
+ * @param restarts    自动重启次数（NRestarts）
+ * @param failures    窗口内的失败和重启次数
+ * @param status      健康状态
+ * @param timestamp   状态变化时间戳（毫秒）
+ * @author Qian-MoBai
+ */
+public record UnitHealth(
+		String unitName,
+		String activeState,
+		long restarts,
+		int failures,
+		UnitHealthStatus status,
+		long timestamp
+) {
+}
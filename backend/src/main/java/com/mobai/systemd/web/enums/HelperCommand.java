@@ -0,0 +1,50 @@
+package com.mobai.systemd.web.enums;
+
+/**
+ * 特权助手命令枚举类
+ *
+ * @author Qian-MoBai
+ */
+
+public enum HelperCommand {
+	/**
+	 * 列出服务单元，参数：[用户名]，无参数时为系统级
+	 */
+	LIST(1),
+	/**
+	 * 操作服务单元，参数：操作、服务名
+	 */
+	OPERATE(2),
+	/**
+	 * 写入服务文件，参数：服务名、文件内容
+	 */
+	WRITE_UNIT(3),
+	/**
+	 * 重载 systemd
+	 */
+	DAEMON_RELOAD(4);
+	private final int code;
+
+	HelperCommand(int code) {
+		this.code = code;
+	}
+
+	public int getCode() {
+		return code;
+	}
+
+	/**
+	 * 根据编码获取命令
+	 *
+	 * @param code 编码
+	 * @return 命令
+	 */
+	public static HelperCommand of(int code) {
+		for (HelperCommand command : values()) {
+			if (command.code == code) {
+				return command;
+			}
+		}
+		throw new IllegalArgumentException("Invalid helper command: " + code);
+	}
+}
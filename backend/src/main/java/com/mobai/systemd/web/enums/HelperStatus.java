@@ -0,0 +1,50 @@
+package com.mobai.systemd.web.enums;
+
+/**
+ * 特权助手响应状态枚举类
+ *
+ * @author Qian-MoBai
+ */
+
+public enum HelperStatus {
+	/**
+	 * 成功
+	 */
+	OK(0),
+	/**
+	 * 执行失败
+	 */
+	FAILED(1),
+	/**
+	 * 请求被拒绝（参数不合法或命中黑名单）
+	 */
+	REJECTED(2),
+	/**
+	 * 服务文件已存在
+	 */
+	ALREADY_EXISTS(3);
+	private final int code;
+
+	HelperStatus(int code) {
+		this.code = code;
+	}
+
+	public int getCode() {
+		return code;
+	}
+
+	/**
+	 * 根据编码获取状态
+	 *
+	 * @param code 编码
+	 * @return 状态
+	 */
+	public static HelperStatus of(int code) {
+		for (HelperStatus status : values()) {
+			if (status.code == code) {
+				return status;
+			}
+		}
+		throw new IllegalArgumentException("Invalid helper status: " + code);
+	}
+}
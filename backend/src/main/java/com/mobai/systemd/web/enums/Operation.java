@@ -1,5 +1,7 @@
 package com.mobai.systemd.web.enums;
 
+import java.util.Arrays;
+
 /**
  * 服务单元操作枚举类
  *
@@ -40,4 +42,17 @@ public enum Operation {
 	public String getOperation() {
 		return operation;
 	}
+
+	/**
+	 * 根据操作名获取操作
+	 *
+	 * @param operation 操作名
+	 * @return 操作
+	 */
+	public static Operation of(String operation) {
+		return Arrays.stream(values())
+				.filter(value -> value.operation.equals(operation))
+				.findFirst()
+				.orElseThrow(() -> new IllegalArgumentException("Invalid operation: " + operation));
+	}
 }
@@ -0,0 +1,22 @@
+package com.mobai.systemd.web.enums;
+
+/**
+ * 服务单元健康状态枚举类
+ *
+ * @author Qian-MoBai
+ */
+
+public enum UnitHealthStatus {
+	/**
+	 * 正常
+	 */
+	HEALTHY,
+	/**
+	 * 失败
+	 */
+	FAILED,
+	/**
+	 * 反复重启
+	 */
+	CRASH_LOOP
+}
@@ -0,0 +1,24 @@
+package com.mobai.systemd.web.helper;
+
+import com.mobai.systemd.web.enums.HelperStatus;
+
+/**
+ * 特权助手异常
+ *
+ * @author Qian-MoBai
+ */
+public class HelperException extends RuntimeException {
+	/**
+	 * 响应状态
+	 */
+	private final HelperStatus status;
+
+	public HelperException(HelperStatus status, String message) {
+		super(message);
+		this.status = status;
+	}
+
+	public HelperStatus getStatus() {
+		return status;
+	}
+}
@@ -0,0 +1,219 @@
+package com.mobai.systemd.web.helper;
+
+import com.mobai.systemd.web.enums.HelperCommand;
+import com.mobai.systemd.web.enums.HelperStatus;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 特权助手通信协议
+ * <p>
+ * 请求：[int 请求编号][byte 命令][byte 参数个数][字符串 x 参数个数]<br>
+ * 响应：[int 请求编号][byte 状态][字符串]<br>
+ * 字符串为 [int 长度][UTF-8 字节]，长度 -1 表示 null。
+ * 同一连接上可连续发送多个请求而不必等待响应，响应可能乱序返回，按请求编号匹配。
+ *
+ * @author Qian-MoBai
+ */
+public class HelperProtocol {
+	/**
+	 * 最多参数个数
+	 */
+	private static final int MAX_ARGS = 4;
+	/**
+	 * 请求字符串最大字节数
+	 */
+	private static final int MAX_REQUEST_STRING_BYTES = 1024 * 1024;
+	/**
+	 * 响应字符串最大字节数
+	 */
+	private static final int MAX_RESPONSE_STRING_BYTES = 64 * 1024 * 1024;
+
+	private HelperProtocol() {
+	}
+
+	/**
+	 * 写入请求
+	 *
+	 * @param out     输出流
+	 * @param id      请求编号
+	 * @param command 命令
+	 * @param args    参数
+	 * @throws IOException IO异常
+	 */
+	public static void writeRequest(DataOutputStream out, int id, HelperCommand command, String... args) throws IOException {
+		if (args.length > MAX_ARGS) {
+			throw new IllegalArgumentException("Too many arguments: " + args.length);
+		}
+		out.writeInt(id);
+		out.writeByte(command.getCode());
+		out.writeByte(args.length);
+		for (String arg : args) {
+			writeString(out, arg);
+		}
+	}
+
+	/**
+	 * 读取请求，连接关闭时返回 null
+	 *
+	 * @param in 输入流
+	 * @return 请求
+	 * @throws IOException IO异常
+	 */
+	public static Request readRequest(DataInputStream in) throws IOException {
+		int id;
+		try {
+			id = in.readInt();
+		} catch (EOFException e) {
+			return null;
+		}
+		int command = in.readUnsignedByte();
+		int argCount = in.readUnsignedByte();
+		if (argCount > MAX_ARGS) {
+			throw new IOException("Too many arguments: " + argCount);
+		}
+		List<String> args = new ArrayList<>(argCount);
+		for (int i = 0; i < argCount; i++) {
+			args.add(readString(in, MAX_REQUEST_STRING_BYTES));
+		}
+		return new Request(id, command, args);
+	}
+
+	/**
+	 * 写入响应
+	 *
+	 * @param out      输出流
+	 * @param response 响应
+	 * @throws IOException IO异常
+	 */
+	public static void writeResponse(DataOutputStream out, Response response) throws IOException {
+		out.writeInt(response.id());
+		out.writeByte(response.status().getCode());
+		writeString(out, response.payload());
+	}
+
+	/**
+	 * 读取响应，连接关闭时返回 null
+	 *
+	 * @param in 输入流
+	 * @return 响应
+	 * @throws IOException IO异常
+	 */
+	public static Response readResponse(DataInputStream in) throws IOException {
+		int id;
+		try {
+			id = in.readInt();
+		} catch (EOFException e) {
+			return null;
+		}
+		HelperStatus status = HelperStatus.of(in.readUnsignedByte());
+		return new Response(id, status, readString(in, MAX_RESPONSE_STRING_BYTES));
+	}
+
+	/**
+	 * 创建直接读取通道的输入流
+	 * <p>
+	 * 不使用 {@link java.nio.channels.Channels#newInputStream}，以免阻塞读占用通道锁导致并发写被阻塞
+	 *
+	 * @param channel 通道
+	 * @return 输入流
+	 */
+	public static InputStream newInputStream(SocketChannel channel) {
+		return new InputStream() {
+			@Override
+			public int read() throws IOException {
+				byte[] b = new byte[1];
+				return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				return len == 0 ? 0 : channel.read(ByteBuffer.wrap(b, off, len));
+			}
+		};
+	}
+
+	/**
+	 * 创建直接写入通道的输出流
+	 *
+	 * @param channel 通道
+	 * @return 输出流
+	 */
+	public static OutputStream newOutputStream(SocketChannel channel) {
+		return new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				write(new byte[]{(byte) b}, 0, 1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+			}
+		};
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in, int maxBytes) throws IOException {
+		int length = in.readInt();
+		if (length == -1) {
+			return null;
+		}
+		if (length < 0 || length > maxBytes) {
+			throw new IOException("Invalid string length: " + length);
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * 请求
+	 *
+	 * @param id      请求编号
+	 * @param command 命令编码
+	 * @param args    参数
+	 */
+	public record Request(
+			int id,
+			int command,
+			List<String> args
+	) {
+	}
+
+	/**
+	 * 响应
+	 *
+	 * @param id      请求编号
+	 * @param status  状态
+	 * @param payload 结果或错误信息
+	 */
+	public record Response(
+			int id,
+			HelperStatus status,
+			String payload
+	) {
+	}
+}
@@ -0,0 +1,214 @@
+package com.mobai.systemd.web.helper;
+
+import com.mobai.systemd.web.entity.ServiceFile;
+import com.mobai.systemd.web.enums.HelperCommand;
+import com.mobai.systemd.web.enums.HelperStatus;
+import com.mobai.systemd.web.enums.Operation;
+import com.mobai.systemd.web.util.ExecUtil;
+import com.mobai.systemd.web.util.ServiceFileCheckUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.GroupPrincipal;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 特权助手
+ * <p>
+ * 以 root 身份独立运行（不启动 Spring），通过 Unix 域套接字为 Web 进程执行固定的系统级操作，
+ * Web 进程因此无需 sudo 权限。所有请求在助手一侧重新校验服务名、操作和服务文件内容。
+ * <p>
+ * 启动参数：{@code --socket=<套接字路径> --system-dir=<系统服务目录> --group=<允许连接的用户组>}
+ *
+ * @author Qian-MoBai
+ */
+public class PrivilegedHelper {
+	private static final Logger LOG = LoggerFactory.getLogger(PrivilegedHelper.class);
+	/**
+	 * 单个连接最多同时处理的请求数
+	 */
+	private static final int MAX_IN_FLIGHT = 64;
+	/**
+	 * 系统服务目录
+	 */
+	private final Path systemDir;
+
+	public PrivilegedHelper(Path systemDir) {
+		this.systemDir = systemDir;
+	}
+
+	public static void main(String[] args) throws IOException {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			int separator = arg.indexOf('=');
+			if (arg.startsWith("--") && separator > 2) {
+				options.put(arg.substring(2, separator), arg.substring(separator + 1));
+			}
+		}
+		Path socket = Paths.get(options.getOrDefault("socket", "/run/systemd-web/helper.sock"));
+		Path systemDir = Paths.get(options.getOrDefault("system-dir", "/usr/lib/systemd/system/"));
+		new PrivilegedHelper(systemDir).serve(socket, options.get("group"));
+	}
+
+	/**
+	 * 监听套接字并处理连接
+	 *
+	 * @param socket 套接字路径
+	 * @param group  允许连接的用户组，为 null 时仅 root 可连接
+	 * @throws IOException IO异常
+	 */
+	public void serve(Path socket, String group) throws IOException {
+		Files.createDirectories(socket.toAbsolutePath().getParent());
+		Files.deleteIfExists(socket);
+		try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+			server.bind(UnixDomainSocketAddress.of(socket));
+			// 只允许属主和指定用户组连接
+			Files.setPosixFilePermissions(socket, PosixFilePermissions.fromString("rw-rw----"));
+			if (group != null) {
+				GroupPrincipal principal = socket.getFileSystem().getUserPrincipalLookupService().lookupPrincipalByGroupName(group);
+				Files.getFileAttributeView(socket, PosixFileAttributeView.class).setGroup(principal);
+			}
+			LOG.info("Privileged helper listening on {}", socket);
+			while (server.isOpen()) {
+				SocketChannel channel = server.accept();
+				Thread.ofVirtual().name("helper-connection").start(() -> handle(channel));
+			}
+		}
+	}
+
+	/**
+	 * 处理单个连接，请求并发执行，响应按完成顺序写回
+	 */
+	private void handle(SocketChannel channel) {
+		Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+		try (channel) {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(HelperProtocol.newInputStream(channel)));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(HelperProtocol.newOutputStream(channel)));
+			HelperProtocol.Request request;
+			while ((request = HelperProtocol.readRequest(in)) != null) {
+				inFlight.acquire();
+				HelperProtocol.Request current = request;
+				Thread.ofVirtual().name("helper-request").start(() -> {
+					try {
+						HelperProtocol.Response response = execute(current);
+						synchronized (out) {
+							HelperProtocol.writeResponse(out, response);
+							out.flush();
+						}
+					} catch (IOException e) {
+						LOG.warn("Failed to write helper response: {}", e.getMessage());
+					} finally {
+						inFlight.release();
+					}
+				});
+			}
+			// 等待进行中的请求完成后再关闭连接
+			inFlight.acquire(MAX_IN_FLIGHT);
+		} catch (IOException e) {
+			LOG.warn("Helper connection closed: {}", e.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * 校验并执行请求
+	 *
+	 * @param request 请求
+	 * @return 响应
+	 */
+	HelperProtocol.Response execute(HelperProtocol.Request request) {
+		try {
+			HelperCommand command = HelperCommand.of(request.command());
+			List<String> args = request.args();
+			// 服务文件内容不写入日志
+			LOG.info("Executing helper command {} {}", command, command == HelperCommand.WRITE_UNIT ? args.subList(0, Math.min(1, args.size())) : args);
+			String payload = switch (command) {
+				case LIST -> list(args);
+				case OPERATE -> operate(args);
+				case WRITE_UNIT -> writeUnit(args);
+				case DAEMON_RELOAD -> {
+					requireArgs(args, 0);
+					yield ExecUtil.executeCommand(new String[]{"systemctl", "daemon-reload"});
+				}
+			};
+			return new HelperProtocol.Response(request.id(), HelperStatus.OK, payload);
+		} catch (FileAlreadyExistsException e) {
+			return new HelperProtocol.Response(request.id(), HelperStatus.ALREADY_EXISTS, e.getMessage());
+		} catch (IllegalArgumentException | SecurityException e) {
+			LOG.warn("Rejected helper request {}: {}", request.id(), e.getMessage());
+			return new HelperProtocol.Response(request.id(), HelperStatus.REJECTED, e.getMessage());
+		} catch (IOException | RuntimeException e) {
+			return new HelperProtocol.Response(request.id(), HelperStatus.FAILED, e.getMessage());
+		}
+	}
+
+	/**
+	 * 列出系统级或指定用户的服务单元
+	 */
+	private String list(List<String> args) throws IOException {
+		if (args.isEmpty()) {
+			return ExecUtil.executeCommand(new String[]{"systemctl", "--no-pager", "--type=service", "list-unit-files"});
+		}
+		requireArgs(args, 1);
+		String user = args.getFirst();
+		if (ServiceFileCheckUtil.checkUserName(user)) {
+			throw new SecurityException("Invalid user: " + user);
+		}
+		return ExecUtil.executeCommand(new String[]{"systemctl", "--user", "--machine=" + user + "@", "--no-pager", "--type=service", "list-unit-files"});
+	}
+
+	/**
+	 * 操作系统级服务单元
+	 */
+	private String operate(List<String> args) {
+		requireArgs(args, 2);
+		Operation operation = Operation.of(args.get(0));
+		String unitName = args.get(1);
+		if (ServiceFileCheckUtil.checkUnitName(unitName)) {
+			throw new SecurityException("Invalid ServiceName: " + unitName);
+		}
+		return String.valueOf(ExecUtil.isCommandSuccessful("systemctl", operation.getOperation(), unitName));
+	}
+
+	/**
+	 * 写入系统级服务文件
+	 */
+	private String writeUnit(List<String> args) throws IOException {
+		requireArgs(args, 2);
+		ServiceFile serviceFile = new ServiceFile("system", args.get(0), args.get(1));
+		ServiceFileCheckUtil.checkServiceFile(serviceFile);
+		Path target = systemDir.resolve(serviceFile.unitName()).normalize();
+		if (!target.startsWith(systemDir)) {
+			throw new SecurityException("Path traversal detected");
+		}
+		Files.writeString(target, serviceFile.content(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		Files.setPosixFilePermissions(target, PosixFilePermissions.fromString("rw-r--r--"));
+		return String.valueOf(true);
+	}
+
+	private static void requireArgs(List<String> args, int count) {
+		if (args.size() != count || args.contains(null)) {
+			throw new IllegalArgumentException("Invalid arguments");
+		}
+	}
+}
@@ -0,0 +1,227 @@
+package com.mobai.systemd.web.helper;
+
+import com.mobai.systemd.web.enums.HelperCommand;
+import com.mobai.systemd.web.enums.HelperStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 特权助手客户端
+ * <p>
+ * 配置 systemd.helper.socket 后启用。所有请求复用同一个连接，可连续发送而不必等待响应，
+ * 由后台线程按请求编号分发响应；连接断开后下次请求时自动重连。
+ *
+ * @author Qian-MoBai
+ */
+@Component
+public class PrivilegedHelperClient implements DisposableBean {
+	private static final Logger LOG = LoggerFactory.getLogger(PrivilegedHelperClient.class);
+	/**
+	 * 套接字路径，为 null 时未启用
+	 */
+	private final Path socket;
+	/**
+	 * 请求超时时间
+	 */
+	private final Duration timeout;
+	/**
+	 * 请求编号
+	 */
+	private final AtomicInteger nextId = new AtomicInteger();
+	/**
+	 * 当前连接
+	 */
+	private Connection connection;
+
+	public PrivilegedHelperClient(Environment env) {
+		String socketPath = env.getProperty("systemd.helper.socket");
+		this.socket = StringUtils.hasText(socketPath) ? Paths.get(socketPath) : null;
+		this.timeout = Duration.ofMillis(env.getProperty("systemd.helper.timeout", Long.class, 30000L));
+	}
+
+	/**
+	 * 是否启用特权助手
+	 *
+	 * @return 是否启用
+	 */
+	public boolean isEnabled() {
+		return socket != null;
+	}
+
+	/**
+	 * 发送请求，不等待响应
+	 *
+	 * @param command 命令
+	 * @param args    参数
+	 * @return 响应结果
+	 */
+	public CompletableFuture<String> send(HelperCommand command, String... args) {
+		try {
+			return connection().send(nextId.incrementAndGet(), command, args);
+		} catch (IOException e) {
+			LOG.error("Failed to connect to privileged helper: {}", e.getMessage());
+			return CompletableFuture.failedFuture(new HelperException(HelperStatus.FAILED, "Privileged helper unavailable"));
+		}
+	}
+
+	/**
+	 * 发送请求并等待响应
+	 *
+	 * @param command 命令
+	 * @param args    参数
+	 * @return 响应结果
+	 */
+	public String call(HelperCommand command, String... args) {
+		return await(send(command, args));
+	}
+
+	/**
+	 * 等待响应
+	 *
+	 * @param future 响应结果
+	 * @return 响应结果
+	 */
+	public String await(CompletableFuture<String> future) {
+		try {
+			return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof TimeoutException) {
+				throw new HelperException(HelperStatus.FAILED, "Privileged helper timed out");
+			}
+			throw new HelperException(HelperStatus.FAILED, e.getCause().getMessage());
+		} catch (TimeoutException e) {
+			// 结束请求以便从等待响应的请求中移除
+			HelperException timeout = new HelperException(HelperStatus.FAILED, "Privileged helper timed out");
+			future.completeExceptionally(timeout);
+			throw timeout;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new HelperException(HelperStatus.FAILED, "Interrupted while waiting for privileged helper");
+		}
+	}
+
+	@Override
+	public synchronized void destroy() {
+		if (connection != null) {
+			connection.close(new IOException("Client closed"));
+		}
+	}
+
+	private synchronized Connection connection() throws IOException {
+		if (socket == null) {
+			throw new IOException("Privileged helper is not configured");
+		}
+		if (connection == null || !connection.open) {
+			SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+			try {
+				channel.connect(UnixDomainSocketAddress.of(socket));
+			} catch (IOException e) {
+				channel.close();
+				throw e;
+			}
+			connection = new Connection(channel);
+		}
+		return connection;
+	}
+
+	/**
+	 * 与特权助手的连接
+	 */
+	private static final class Connection {
+		private final SocketChannel channel;
+		private final DataOutputStream out;
+		/**
+		 * 等待响应的请求
+		 */
+		private final Map<Integer, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+		private volatile boolean open = true;
+
+		private Connection(SocketChannel channel) {
+			this.channel = channel;
+			this.out = new DataOutputStream(new BufferedOutputStream(HelperProtocol.newOutputStream(channel)));
+			Thread.ofVirtual().name("helper-client-reader").start(this::readLoop);
+		}
+
+		private CompletableFuture<String> send(int id, HelperCommand command, String... args) {
+			CompletableFuture<String> future = new CompletableFuture<>();
+			pending.put(id, future);
+			// 超时等方式提前结束的请求不再等待响应，避免一直留在 pending 中
+			future.whenComplete((result, e) -> pending.remove(id));
+			try {
+				synchronized (out) {
+					HelperProtocol.writeRequest(out, id, command, args);
+					out.flush();
+				}
+			} catch (IOException e) {
+				close(e);
+			}
+			if (!open) {
+				// 连接已在放入之前关闭
+				fail(future, new IOException("Connection closed"));
+			}
+			return future;
+		}
+
+		private void readLoop() {
+			try {
+				DataInputStream in = new DataInputStream(new BufferedInputStream(HelperProtocol.newInputStream(channel)));
+				HelperProtocol.Response response;
+				while ((response = HelperProtocol.readResponse(in)) != null) {
+					CompletableFuture<String> future = pending.remove(response.id());
+					if (future == null) {
+						continue;
+					}
+					if (response.status() == HelperStatus.OK) {
+						future.complete(response.payload());
+					} else {
+						future.completeExceptionally(new HelperException(response.status(), response.payload()));
+					}
+				}
+				close(new IOException("Connection closed by privileged helper"));
+			} catch (IOException | RuntimeException e) {
+				close(e);
+			}
+		}
+
+		private void close(Exception cause) {
+			open = false;
+			try {
+				channel.close();
+			} catch (IOException e) {
+				LOG.warn("Failed to close helper connection: {}", e.getMessage());
+			}
+			pending.values().forEach(future -> fail(future, cause));
+			pending.clear();
+		}
+
+		private static void fail(CompletableFuture<String> future, Exception cause) {
+			future.completeExceptionally(new HelperException(HelperStatus.FAILED, "Privileged helper connection lost: " + cause.getMessage()));
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package com.mobai.systemd.web.service;
+
+import com.mobai.systemd.web.entity.AuditRecord;
+
+import java.util.List;
+
+/**
+ * 审计日志服务
+ *
+ * @author Qian-MoBai
+ */
+public interface AuditService {
+	/**
+	 * 记录审计日志（异步写入，不阻塞调用线程）
+	 *
+	 * @param auditRecord 审计记录
+	 */
+	void record(AuditRecord auditRecord);
+
+	/**
+	 * 查询审计日志，按时间倒序返回
+	 *
+	 * @param unitName 服务名称，为空时不过滤
+	 * @param from     起始时间戳（毫秒，包含）
+	 * @param to       结束时间戳（毫秒，包含）
+	 * @param limit    最大条数
+	 * @return 审计记录列表
+	 */
+	List<AuditRecord> query(String unitName, long from, long to, int limit);
+}
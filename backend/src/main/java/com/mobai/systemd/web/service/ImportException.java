@@ -0,0 +1,24 @@
+package com.mobai.systemd.web.service;
+
+import com.mobai.systemd.web.entity.ImportResult;
+
+/**
+ * 服务文件导入中途失败异常，携带失败前的导入结果
+ *
+ * @author Qian-MoBai
+ */
+public class ImportException extends RuntimeException {
+	/**
+	 * 失败前的导入结果
+	 */
+	private final ImportResult result;
+
+	public ImportException(String message, ImportResult result) {
+		super(message);
+		this.result = result;
+	}
+
+	public ImportResult getResult() {
+		return result;
+	}
+}
@@ -1,10 +1,13 @@
 package com.mobai.systemd.web.service;
 
+import com.mobai.systemd.web.entity.ImportResult;
 import com.mobai.systemd.web.entity.ServiceFile;
 import com.mobai.systemd.web.entity.ServiceUnitInfo;
 import com.mobai.systemd.web.entity.ServiceUnitOperation;
 import jakarta.servlet.http.HttpSession;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 /**
@@ -21,6 +24,13 @@ public interface SystemdService {
 	 */
 	List<ServiceUnitInfo> listServiceUnits(String level);
 
+	/**
+	 * 并行列出所有活跃用户（含 linger 用户）的用户级服务单元
+	 *
+	 * @return 服务单元列表，带所属用户
+	 */
+	List<ServiceUnitInfo> listAllUserServiceUnits();
+
 	/**
 	 * 操作服务单元
 	 *
@@ -45,4 +55,24 @@ public interface SystemdService {
 	 * @return 是否上传成功
 	 */
 	boolean uploadService(HttpSession session, ServiceFile serviceFile);
+
+	/**
+	 * 导出服务文件（tar 归档）
+	 *
+	 * @param level        服务单元级别
+	 * @param outputStream 输出流
+	 */
+	void exportServices(String level, OutputStream outputStream);
+
+	/**
+	 * 导入服务文件（tar 归档），全部写入后统一重载一次
+	 * <p>
+	 * 未通过校验的文件只被拒绝，不影响其余文件；读取归档失败时已写入的文件保留
+	 *
+	 * @param level       服务单元级别
+	 * @param inputStream 输入流
+	 * @return 导入结果
+	 * @throws ImportException 导入中途失败，携带失败前的导入结果
+	 */
+	ImportResult importServices(String level, InputStream inputStream);
 }
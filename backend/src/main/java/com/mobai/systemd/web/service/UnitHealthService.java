@@ -0,0 +1,36 @@
+package com.mobai.systemd.web.service;
+
+import com.mobai.systemd.web.entity.UnitHealth;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 服务单元健康监测服务
+ *
+ * @author Qian-MoBai
+ */
+public interface UnitHealthService {
+	/**
+	 * 列出当前失败或反复重启的服务单元
+	 *
+	 * @return 异常服务单元列表
+	 */
+	List<UnitHealth> listUnhealthyUnits();
+
+	/**
+	 * 添加健康状态变化监听器
+	 * <p>
+	 * 监听器在轮询线程中同步调用，不应阻塞或执行网络 IO
+	 *
+	 * @param listener 监听器
+	 */
+	void addListener(Consumer<UnitHealth> listener);
+
+	/**
+	 * 移除健康状态变化监听器
+	 *
+	 * @param listener 监听器
+	 */
+	void removeListener(Consumer<UnitHealth> listener);
+}
@@ -0,0 +1,456 @@
+package com.mobai.systemd.web.service.impl;
+
+import com.mobai.systemd.web.entity.AuditRecord;
+import com.mobai.systemd.web.service.AuditService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 审计日志服务实现类
+ * <p>
+ * 请求线程只负责入队，由后台线程批量写入内存映射的分段文件（只追加），
+ * 写满后滚动到新分段并删除最旧的分段。每个分段在内存中维护时间范围和服务名集合作为索引，
+ * 查询时只扫描命中的分段；分段内每 {@value #RECORDS_PER_BLOCK} 条记录记下一个起始偏移，
+ * 查询按块从新到旧解码，凑满条数即停止。
+ * <p>
+ * 记录格式：[int 长度][long 时间戳][long 耗时][byte 是否成功][字符串 x5]，字符串为 [short 长度][UTF-8 字节]，
+ * 长度为 0 表示分段结束。
+ *
+ * @author Qian-MoBai
+ */
+@Service
+public class AuditServiceImpl implements AuditService, DisposableBean {
+	private static final Logger LOG = LoggerFactory.getLogger(AuditServiceImpl.class);
+	/**
+	 * 单批最大写入条数
+	 */
+	private static final int BATCH_SIZE = 256;
+	/**
+	 * 字符串最大字节数
+	 */
+	private static final int MAX_STRING_BYTES = 1024;
+	/**
+	 * 每个索引块包含的记录数
+	 */
+	private static final int RECORDS_PER_BLOCK = 64;
+	/**
+	 * 分段文件前缀
+	 */
+	private static final String SEGMENT_PREFIX = "audit-";
+	/**
+	 * 分段文件后缀
+	 */
+	private static final String SEGMENT_SUFFIX = ".seg";
+	/**
+	 * 丢弃记录数的汇报间隔
+	 */
+	private static final long DROP_REPORT_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+	/**
+	 * 审计日志目录
+	 */
+	private final Path dir;
+	/**
+	 * 分段大小
+	 */
+	private final int segmentSize;
+	/**
+	 * 最多保留的分段数
+	 */
+	private final int maxSegments;
+	/**
+	 * 待写入队列
+	 */
+	private final BlockingQueue<AuditRecord> queue;
+	/**
+	 * 分段索引
+	 */
+	private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+	/**
+	 * 因队列已满丢弃的记录数
+	 */
+	private final AtomicLong dropped = new AtomicLong();
+	/**
+	 * 后台写入线程，审计目录不可用时为 null
+	 */
+	private final Thread writer;
+	/**
+	 * 当前写入的分段
+	 */
+	private Segment active;
+	private volatile boolean running = true;
+
+	public AuditServiceImpl(Environment env) {
+		this.dir = Paths.get(env.getProperty("systemd.audit.path", "audit")).toAbsolutePath();
+		this.segmentSize = env.getProperty("systemd.audit.segment-size", Integer.class, 16 * 1024 * 1024);
+		this.maxSegments = env.getProperty("systemd.audit.max-segments", Integer.class, 8);
+		this.queue = new ArrayBlockingQueue<>(env.getProperty("systemd.audit.queue-capacity", Integer.class, 8192));
+		Thread writerThread = null;
+		try {
+			Files.createDirectories(dir);
+			if (!Files.isWritable(dir)) {
+				throw new IOException("Permission denied");
+			}
+			loadSegments();
+			writerThread = Thread.ofPlatform().name("audit-writer").daemon().start(this::writeLoop);
+		} catch (IOException | RuntimeException e) {
+			// 审计目录不可用时只禁用审计，不影响应用启动
+			LOG.error("Audit directory {} is not usable, audit journal disabled: {}", dir, e.getMessage());
+			segments.clear();
+		}
+		this.writer = writerThread;
+	}
+
+	@Override
+	public void record(AuditRecord auditRecord) {
+		// 不阻塞请求线程，队列满时只计数，由写入线程汇报
+		if (writer != null && !queue.offer(auditRecord)) {
+			dropped.incrementAndGet();
+		}
+	}
+
+	@Override
+	public List<AuditRecord> query(String unitName, long from, long to, int limit) {
+		List<AuditRecord> result = new ArrayList<>();
+		// 从最新的分段开始查找
+		for (Segment segment : segments.descendingMap().values()) {
+			if (result.size() >= limit) {
+				break;
+			}
+			if (!segment.matches(unitName, from, to)) {
+				continue;
+			}
+			try {
+				queryNewestFirst(segment, unitName, from, to, limit, result);
+			} catch (IOException e) {
+				// 分段可能已被滚动删除
+				LOG.warn("Failed to read audit segment {}: {}", segment.path, e.getMessage());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 按索引块从后向前查询分段，块内正序解码后倒序加入结果，结果凑满 limit 条即停止
+	 */
+	private static void queryNewestFirst(Segment segment, String unitName, long from, long to, int limit,
+										 List<AuditRecord> result) throws IOException {
+		// 先读位置再读索引，索引中超出该位置的块尚未提交
+		int end = segment.position;
+		int blockCount = segment.blockCount;
+		int[] blockOffsets = segment.blockOffsets;
+		List<AuditRecord> matched = new ArrayList<>(RECORDS_PER_BLOCK);
+		try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, end);
+			for (int i = blockCount - 1; i >= 0 && result.size() < limit; i--) {
+				int start = blockOffsets[i];
+				if (start >= end) {
+					continue;
+				}
+				int blockEnd = i + 1 < blockCount ? Math.min(blockOffsets[i + 1], end) : end;
+				buffer.position(start).limit(blockEnd);
+				AuditRecord auditRecord;
+				while ((auditRecord = decode(buffer)) != null) {
+					if (auditRecord.timestamp() >= from && auditRecord.timestamp() <= to
+							&& (unitName == null || unitName.equals(auditRecord.unitName()))) {
+						matched.add(auditRecord);
+					}
+				}
+				for (int j = matched.size() - 1; j >= 0 && result.size() < limit; j--) {
+					result.add(matched.get(j));
+				}
+				matched.clear();
+			}
+		}
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		running = false;
+		if (writer != null) {
+			writer.join(TimeUnit.SECONDS.toMillis(5));
+		}
+	}
+
+	/**
+	 * 后台批量写入
+	 */
+	private void writeLoop() {
+		List<AuditRecord> batch = new ArrayList<>(BATCH_SIZE);
+		long lastDropReport = System.nanoTime();
+		while (running || !queue.isEmpty()) {
+			if (System.nanoTime() - lastDropReport >= DROP_REPORT_INTERVAL) {
+				lastDropReport = System.nanoTime();
+				reportDropped();
+			}
+			try {
+				AuditRecord first = queue.poll(1, TimeUnit.SECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, BATCH_SIZE - 1);
+				for (AuditRecord auditRecord : batch) {
+					append(auditRecord);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			} catch (IOException | RuntimeException e) {
+				LOG.error("Failed to write audit records: {}", e.getMessage());
+			} finally {
+				batch.clear();
+			}
+		}
+		reportDropped();
+		if (active != null) {
+			active.buffer.force();
+		}
+	}
+
+	/**
+	 * 汇报上次汇报以来因队列已满丢弃的记录数
+	 */
+	private void reportDropped() {
+		long count = dropped.getAndSet(0);
+		if (count > 0) {
+			LOG.warn("Audit queue is full, dropped {} records", count);
+		}
+	}
+
+	/**
+	 * 追加一条记录，空间不足时滚动分段
+	 */
+	private void append(AuditRecord auditRecord) throws IOException {
+		byte[] bytes = encode(auditRecord);
+		// 预留 4 字节作为结束标记
+		if (bytes.length + Integer.BYTES * 2 > segmentSize) {
+			LOG.warn("Audit record too large, dropped: {}", auditRecord);
+			return;
+		}
+		if (active == null || active.buffer.remaining() < bytes.length + Integer.BYTES * 2) {
+			rotate();
+		}
+		int offset = active.buffer.position();
+		// 先写内容再写长度，写入中断时长度仍为 0，即结束标记
+		active.buffer.position(offset + Integer.BYTES);
+		active.buffer.put(bytes);
+		active.buffer.putInt(offset, bytes.length);
+		active.index(auditRecord, offset);
+		active.position = active.buffer.position();
+	}
+
+	/**
+	 * 滚动到新的分段，并删除超出数量的旧分段
+	 */
+	private void rotate() throws IOException {
+		long id = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+		Path path = dir.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+		Segment segment = new Segment(path);
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			// 映射在通道关闭后依然有效
+			segment.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+		}
+		if (active != null) {
+			active.buffer.force();
+			active.buffer = null;
+		}
+		segments.put(id, segment);
+		active = segment;
+		while (segments.size() > maxSegments) {
+			Map.Entry<Long, Segment> oldest = segments.pollFirstEntry();
+			Files.deleteIfExists(oldest.getValue().path);
+		}
+	}
+
+	/**
+	 * 启动时扫描已有分段重建索引，并继续写入最新分段
+	 */
+	private void loadSegments() throws IOException {
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+			for (Path path : stream) {
+				String name = path.getFileName().toString();
+				long id;
+				try {
+					id = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+				} catch (NumberFormatException e) {
+					continue;
+				}
+				Segment segment = new Segment(path);
+				try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+					ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+					AuditRecord auditRecord;
+					while ((auditRecord = decode(buffer)) != null) {
+						segment.index(auditRecord, segment.position);
+						segment.position = buffer.position();
+					}
+				}
+				segments.put(id, segment);
+			}
+		}
+		if (segments.isEmpty()) {
+			return;
+		}
+		Segment last = segments.lastEntry().getValue();
+		try (FileChannel channel = FileChannel.open(last.path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			if (channel.size() == segmentSize) {
+				last.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+				last.buffer.position(last.position);
+				active = last;
+			}
+		}
+	}
+
+	private static byte[] encode(AuditRecord auditRecord) {
+		byte[][] strings = {
+				toBytes(auditRecord.operator()),
+				toBytes(auditRecord.action()),
+				toBytes(auditRecord.level()),
+				toBytes(auditRecord.unitName()),
+				toBytes(auditRecord.message())
+		};
+		int length = Long.BYTES * 2 + 1;
+		for (byte[] string : strings) {
+			length += Short.BYTES + string.length;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(length)
+				.putLong(auditRecord.timestamp())
+				.putLong(auditRecord.durationMicros())
+				.put((byte) (auditRecord.success() ? 1 : 0));
+		for (byte[] string : strings) {
+			buffer.putShort((short) string.length).put(string);
+		}
+		return buffer.array();
+	}
+
+	/**
+	 * 解码下一条记录，到达分段结尾时返回 null
+	 */
+	private static AuditRecord decode(ByteBuffer buffer) {
+		if (buffer.remaining() < Integer.BYTES) {
+			return null;
+		}
+		int start = buffer.position();
+		int length = buffer.getInt();
+		if (length <= 0 || length > buffer.remaining()) {
+			buffer.position(start);
+			return null;
+		}
+		try {
+			long timestamp = buffer.getLong();
+			long durationMicros = buffer.getLong();
+			boolean success = buffer.get() == 1;
+			String operator = readString(buffer);
+			String action = readString(buffer);
+			String level = readString(buffer);
+			String unitName = readString(buffer);
+			String message = readString(buffer);
+			if (buffer.position() != start + Integer.BYTES + length) {
+				// 字段长度与记录长度不符，视为不完整的记录
+				buffer.position(start);
+				return null;
+			}
+			return new AuditRecord(timestamp, operator, action, level, unitName, success, durationMicros, message);
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			// 不完整的记录（如异常退出）视为结尾
+			buffer.position(start);
+			return null;
+		}
+	}
+
+	private static byte[] toBytes(String string) {
+		if (string == null) {
+			return new byte[0];
+		}
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		return bytes.length > MAX_STRING_BYTES ? Arrays.copyOf(bytes, MAX_STRING_BYTES) : bytes;
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+		buffer.get(bytes);
+		return bytes.length == 0 ? null : new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * 审计日志分段
+	 */
+	private static final class Segment {
+		private final Path path;
+		/**
+		 * 该分段涉及的服务名
+		 */
+		private final Set<String> unitNames = ConcurrentHashMap.newKeySet();
+		/**
+		 * 写入映射，仅当前分段持有
+		 */
+		private MappedByteBuffer buffer;
+		/**
+		 * 已提交的写入位置
+		 */
+		private volatile int position;
+		private volatile long minTimestamp = Long.MAX_VALUE;
+		private volatile long maxTimestamp = Long.MIN_VALUE;
+		/**
+		 * 记录数，仅写入线程访问
+		 */
+		private int recordCount;
+		/**
+		 * 索引块起始偏移，先发布数组再发布块数
+		 */
+		private volatile int[] blockOffsets = new int[16];
+		private volatile int blockCount;
+
+		private Segment(Path path) {
+			this.path = path;
+		}
+
+		private void index(AuditRecord auditRecord, int offset) {
+			if (recordCount++ % RECORDS_PER_BLOCK == 0) {
+				int[] offsets = blockOffsets;
+				if (blockCount == offsets.length) {
+					offsets = Arrays.copyOf(offsets, offsets.length * 2);
+				}
+				offsets[blockCount] = offset;
+				blockOffsets = offsets;
+				blockCount = blockCount + 1;
+			}
+			minTimestamp = Math.min(minTimestamp, auditRecord.timestamp());
+			maxTimestamp = Math.max(maxTimestamp, auditRecord.timestamp());
+			if (auditRecord.unitName() != null) {
+				unitNames.add(auditRecord.unitName());
+			}
+		}
+
+		private boolean matches(String unitName, long from, long to) {
+			return position > 0
+					&& maxTimestamp >= from && minTimestamp <= to
+					&& (unitName == null || unitNames.contains(unitName));
+		}
+	}
+}
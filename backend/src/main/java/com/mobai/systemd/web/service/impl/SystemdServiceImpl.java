@@ -1,34 +1,54 @@
 package com.mobai.systemd.web.service.impl;
 
+import com.mobai.systemd.web.entity.ImportResult;
 import com.mobai.systemd.web.entity.ServiceFile;
 import com.mobai.systemd.web.entity.ServiceUnitInfo;
 import com.mobai.systemd.web.entity.ServiceUnitOperation;
+import com.mobai.systemd.web.enums.HelperCommand;
+import com.mobai.systemd.web.enums.HelperStatus;
 import com.mobai.systemd.web.enums.Operation;
-import com.mobai.systemd.web.enums.ServiceFileContentBlacklist;
-import com.mobai.systemd.web.enums.UnitBlacklist;
-import com.mobai.systemd.web.enums.WantedByEnum;
+import com.mobai.systemd.web.helper.HelperException;
+import com.mobai.systemd.web.helper.PrivilegedHelperClient;
+import com.mobai.systemd.web.service.ImportException;
 import com.mobai.systemd.web.service.SystemdService;
 import com.mobai.systemd.web.util.ExecUtil;
+import com.mobai.systemd.web.util.ServiceFileCheckUtil;
+import com.mobai.systemd.web.util.TarArchiveUtil;
 import jakarta.servlet.http.HttpSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.regex.Pattern;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 系统服务管理服务实现类
@@ -36,59 +56,230 @@ import java.util.regex.Pattern;
  * @author Qian-MoBai
  */
 @Service
-public class SystemdServiceImpl implements SystemdService {
+public class SystemdServiceImpl implements SystemdService, DisposableBean {
 	private static final Logger LOG = LoggerFactory.getLogger(SystemdServiceImpl.class);
+	/**
+	 * 单个服务文件最大大小
+	 */
+	private static final long MAX_SERVICE_FILE_SIZE = 1024 * 1024;
 	/**
 	 * 环境变量
 	 */
 	private final Environment env;
+	/**
+	 * 特权助手客户端，启用后系统级操作不再使用 sudo
+	 */
+	private final PrivilegedHelperClient helperClient;
+	/**
+	 * 多用户列表查询线程池
+	 */
+	private final ExecutorService userUnitsExecutor;
+	/**
+	 * 单个用户查询超时时间
+	 */
+	private final Duration userUnitsTimeout;
+	/**
+	 * 用户服务单元缓存有效期
+	 */
+	private final Duration userUnitsCacheTtl;
+	/**
+	 * 用户服务单元缓存
+	 */
+	private final Map<String, CachedServiceUnits> userUnitsCache = new ConcurrentHashMap<>();
+	/**
+	 * 正在查询的用户，同一用户同时只查询一次
+	 */
+	private final Map<String, CompletableFuture<List<ServiceUnitInfo>>> userUnitsLoading = new ConcurrentHashMap<>();
 
-	public SystemdServiceImpl(Environment env) {
+	public SystemdServiceImpl(Environment env, PrivilegedHelperClient helperClient) {
 		this.env = env;
+		this.helperClient = helperClient;
+		int concurrency = env.getProperty("systemd.service.users.concurrency", Integer.class, 4);
+		// 队列有界，超出时直接返回缓存结果而不是继续排队
+		this.userUnitsExecutor = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(env.getProperty("systemd.service.users.queue-capacity", Integer.class, 64)),
+				Thread.ofPlatform().name("user-units-", 0).daemon().factory());
+		this.userUnitsTimeout = Duration.ofMillis(env.getProperty("systemd.service.users.timeout", Long.class, 5000L));
+		this.userUnitsCacheTtl = Duration.ofMillis(env.getProperty("systemd.service.users.cache-ttl", Long.class, 30000L));
+	}
+
+	@Override
+	public void destroy() {
+		userUnitsExecutor.shutdownNow();
 	}
 
 	@Override
 	public List<ServiceUnitInfo> listServiceUnits(String level) {
 		List<ServiceUnitInfo> serviceUnits = null;
 		try {
-			String[] command = buildSystemdCommand(level, new String[]{"systemctl", "--no-pager", "--type=service", "list-unit-files"});
-			String output = Objects.requireNonNull(ExecUtil.executeCommand(command));
-			serviceUnits = output.lines()
-					// 过滤掉非服务类型的行
-					.filter(line -> line.contains("service"))
-					.map(line -> {
-						// 过滤多余的空格并创建 ServiceUnitInfo 对象
-						String[] parts = line.trim().split("\\s+");
-						return new ServiceUnitInfo(
-								parts[0],
-								parts[1],
-								parts[2]
-						);
-					})
+			String output;
+			if (useHelper(level)) {
+				output = helperClient.call(HelperCommand.LIST);
+			} else {
+				String[] command = buildSystemdCommand(level, new String[]{"systemctl", "--no-pager", "--type=service", "list-unit-files"});
+				output = ExecUtil.executeCommand(command);
+			}
+			serviceUnits = parseServiceUnits(Objects.requireNonNull(output), null);
+		} catch (IOException | HelperException e) {
+			LOG.error("Failed to list service units: {}", e.getMessage());
+		}
+		return serviceUnits;
+	}
+
+	@Override
+	public List<ServiceUnitInfo> listAllUserServiceUnits() {
+		List<String> users;
+		try {
+			String output = Objects.requireNonNull(ExecUtil.executeCommand(new String[]{"loginctl", "list-users", "--no-legend"}, userUnitsTimeout));
+			users = output.lines()
+					.map(line -> line.trim().split("\\s+"))
+					// UID USER [LINGER] STATE，跳过正在退出的用户
+					.filter(parts -> parts.length >= 2 && !"closing".equals(parts[parts.length - 1]))
+					.map(parts -> parts[1])
+					.filter(user -> !ServiceFileCheckUtil.checkUserName(user))
+					.distinct()
 					.toList();
 		} catch (IOException e) {
-			LOG.error("Failed to list service units: {}", e.getMessage());
+			LOG.error("Failed to list users: {}", e.getMessage());
+			throw new RuntimeException("Failed to list users");
+		}
+		// 所有用户共用同一个截止时间，慢的用户管理器只影响自己的结果
+		List<CompletableFuture<List<ServiceUnitInfo>>> futures = users.stream()
+				.map(this::listUserServiceUnits)
+				.toList();
+		return futures.stream()
+				.flatMap(future -> future.join().stream())
+				.toList();
+	}
+
+	/**
+	 * 列出指定用户的用户级服务单元
+	 * <p>
+	 * 有缓存时直接返回缓存，过期的缓存在后台刷新；没有缓存时最多等待单个用户查询超时时间，
+	 * 超时后返回空列表，查询结果在后台写入缓存
+	 *
+	 * @param user 用户名
+	 */
+	private CompletableFuture<List<ServiceUnitInfo>> listUserServiceUnits(String user) {
+		CachedServiceUnits cached = userUnitsCache.get(user);
+		if (cached != null) {
+			if (cached.expiresAt() <= System.currentTimeMillis()) {
+				loadUserServiceUnits(user);
+			}
+			return CompletableFuture.completedFuture(cached.serviceUnits());
 		}
+		return loadUserServiceUnits(user)
+				.copy()
+				.completeOnTimeout(List.of(), userUnitsTimeout.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * 在后台查询指定用户的用户级服务单元并写入缓存
+	 *
+	 * @param user 用户名
+	 */
+	private CompletableFuture<List<ServiceUnitInfo>> loadUserServiceUnits(String user) {
+		try {
+			return userUnitsLoading.computeIfAbsent(user,
+					key -> CompletableFuture.supplyAsync(() -> fetchUserServiceUnits(key), userUnitsExecutor));
+		} catch (RejectedExecutionException e) {
+			LOG.warn("Too many pending user unit lookups, skipped user {}", user);
+			CachedServiceUnits cached = userUnitsCache.get(user);
+			return CompletableFuture.completedFuture(cached != null ? cached.serviceUnits() : List.of());
+		}
+	}
+
+	/**
+	 * 查询指定用户的用户级服务单元，失败时沿用旧结果并同样缓存，避免每次请求都重新查询
+	 *
+	 * @param user 用户名
+	 */
+	private List<ServiceUnitInfo> fetchUserServiceUnits(String user) {
+		List<ServiceUnitInfo> serviceUnits;
+		try {
+			String output;
+			if (helperClient.isEnabled()) {
+				output = helperClient.await(helperClient.send(HelperCommand.LIST, user).orTimeout(userUnitsTimeout.toMillis(), TimeUnit.MILLISECONDS));
+			} else {
+				String[] command = buildSystemdCommand("system", new String[]{"systemctl", "--user", "--machine=" + user + "@", "--no-pager", "--type=service", "list-unit-files"});
+				output = ExecUtil.executeCommand(command, userUnitsTimeout);
+			}
+			serviceUnits = parseServiceUnits(Objects.requireNonNull(output), user);
+		} catch (IOException | RuntimeException e) {
+			LOG.warn("Failed to list service units for user {}: {}", user, e.getMessage());
+			CachedServiceUnits cached = userUnitsCache.get(user);
+			serviceUnits = cached != null ? cached.serviceUnits() : List.of();
+		}
+		userUnitsCache.put(user, new CachedServiceUnits(serviceUnits, System.currentTimeMillis() + userUnitsCacheTtl.toMillis()));
+		userUnitsLoading.remove(user);
 		return serviceUnits;
 	}
 
+	/**
+	 * 解析 list-unit-files 输出
+	 *
+	 * @param output 命令输出
+	 * @param owner  所属用户
+	 */
+	private List<ServiceUnitInfo> parseServiceUnits(String output, String owner) {
+		return output.lines()
+				// 过滤掉非服务类型的行
+				.filter(line -> line.contains("service"))
+				.map(line -> {
+					// 过滤多余的空格并创建 ServiceUnitInfo 对象
+					String[] parts = line.trim().split("\\s+");
+					return new ServiceUnitInfo(
+							parts[0],
+							parts[1],
+							parts[2],
+							owner
+					);
+				})
+				.toList();
+	}
+
 	@Override
 	public boolean operateServiceUnit(ServiceUnitOperation serviceUnitOperation) {
 		// 检查服务名是否合法
-		if (checkUnitName(serviceUnitOperation.unitName())) {
+		if (ServiceFileCheckUtil.checkUnitName(serviceUnitOperation.unitName())) {
 			throw new SecurityException("Invalid ServiceName: " + serviceUnitOperation.unitName());
 		}
 		// 检查操作
-		long operateCount = Arrays.stream(Operation.values())
-				.filter(operation -> operation.getOperation().equals(serviceUnitOperation.operation()))
-				.count();
-		if (operateCount == 0) {
-			throw new IllegalArgumentException("Invalid operation: " + serviceUnitOperation.operation());
+		Operation.of(serviceUnitOperation.operation());
+		if (useHelper(serviceUnitOperation.level())) {
+			return Boolean.parseBoolean(helperClient.call(HelperCommand.OPERATE, serviceUnitOperation.operation(), serviceUnitOperation.unitName()));
 		}
 		String[] command = buildSystemdCommand(serviceUnitOperation.level(), new String[]{"systemctl", serviceUnitOperation.operation(), serviceUnitOperation.unitName()});
 		return ExecUtil.isCommandSuccessful(command);
 	}
 
+	/**
+	 * 是否通过特权助手执行，仅系统级操作需要
+	 *
+	 * @param level 系统级别
+	 */
+	private boolean useHelper(String level) {
+		return "system".equals(level) && helperClient.isEnabled();
+	}
+
+	/**
+	 * 重载 systemd
+	 *
+	 * @param level 系统级别
+	 */
+	private boolean reloadDaemon(String level) {
+		if (useHelper(level)) {
+			try {
+				helperClient.call(HelperCommand.DAEMON_RELOAD);
+				return true;
+			} catch (HelperException e) {
+				LOG.error("Failed to reload systemd: {}", e.getMessage());
+				return false;
+			}
+		}
+		return ExecUtil.isCommandSuccessful(buildSystemdCommand(level, new String[]{"systemctl", "daemon-reload"}));
+	}
+
 	/**
 	 * 构建 systemd 命令
 	 *
@@ -113,19 +304,6 @@ public class SystemdServiceImpl implements SystemdService {
 		return newCommand.toArray(String[]::new);
 	}
 
-	/**
-	 * 检查服务名是否合法
-	 *
-	 * @param unitName 服务名
-	 */
-	private boolean checkUnitName(String unitName) {
-		Pattern safeServiceName = Pattern.compile("^(?:[a-zA-Z0-9_.@-]|\\\\x[0-9a-fA-F]{2})+\\.service$");
-		long serviceBlacklistCount = Arrays.stream(UnitBlacklist.values())
-				.filter(unitBlacklist -> unitBlacklist.getUnitName().equals(unitName))
-				.count();
-		return serviceBlacklistCount > 0 || !safeServiceName.matcher(unitName).matches();
-	}
-
 	@Override
 	public String getServiceTemplate(HttpSession session) {
 		try {
@@ -145,51 +323,25 @@ public class SystemdServiceImpl implements SystemdService {
 			LOG.error("{} the pre request is not accessed", session.getId());
 			throw new RuntimeException(session.getId() + " the pre request is not accessed");
 		}
-		// 检查参数
-		if (!StringUtils.hasText(serviceFile.unitName())
-				|| !StringUtils.hasText(serviceFile.content())
-				|| !StringUtils.hasText(serviceFile.level())) {
-			LOG.error("Invalid parameters");
-			throw new IllegalArgumentException("Invalid parameters");
-		}
-		// 检查服务名是否合法
-		if (checkUnitName(serviceFile.unitName())) {
-			throw new SecurityException("Invalid ServiceName: " + serviceFile.unitName());
-		}
-		// 检查最小条件
-		if (!serviceFile.content().contains("[Unit]")
-				|| !serviceFile.content().contains("[Service]")
-				|| !serviceFile.content().contains("ExecStart=")
-				|| !serviceFile.content().contains("[Install]")
-				|| !serviceFile.content().contains("WantedBy=")) {
-			LOG.error("Invalid service file: {}", serviceFile.unitName());
-			throw new IllegalArgumentException("Invalid service file: " + serviceFile.unitName());
-		}
-		long serviceFileBlacklistCount = Arrays.stream(ServiceFileContentBlacklist.values())
-				.filter(serviceFileBlacklist -> serviceFileBlacklist.find(serviceFile.content()))
-				.count();
-		// 检查 WantedBy
-		String wantedBy = serviceFile.content().lines()
-				.filter(line -> line.startsWith("WantedBy="))
-				.toString();
-		long count = Arrays.stream(WantedByEnum.values())
-				.filter(wantedByEnum -> wantedBy.contains(wantedByEnum.getValue()))
-				.count();
-		if (serviceFileBlacklistCount > 0 || count == 0) {
-			LOG.error("Invalid service file: {}", serviceFile.unitName());
-			throw new IllegalArgumentException("Invalid service file: " + serviceFile.unitName());
-		}
-		// 路径
-		Path baseDir = switch (serviceFile.level()) {
-			case "system" -> Paths.get(Objects.requireNonNull(env.getProperty("systemd.service.system")));
-			case "user" ->
-					Paths.get(env.getProperty("systemd.service.user.home") + env.getProperty("systemd.service.user.path"));
-			default -> throw new IllegalStateException("Unexpected level");
-		};
-		Path target = baseDir.resolve(serviceFile.unitName()).normalize();
-		if (!target.startsWith(baseDir)) {
-			throw new SecurityException("Path traversal detected");
+		ServiceFileCheckUtil.checkServiceFile(serviceFile);
+		if (useHelper(serviceFile.level())) {
+			writeServiceFileWithHelper(serviceFile);
+		} else {
+			writeServiceFile(serviceFile);
 		}
+		// 移除已校验确保每次都是先获取模板再上传
+		session.removeAttribute("isGetTemplate");
+		// 重载 systemd
+		return reloadDaemon(serviceFile.level());
+	}
+
+	/**
+	 * 直接写入服务文件
+	 *
+	 * @param serviceFile 服务文件
+	 */
+	private void writeServiceFile(ServiceFile serviceFile) {
+		Path target = resolveServiceFile(serviceFile.level(), serviceFile.unitName());
 		// 写入
 		try {
 			File file = target.toFile();
@@ -204,9 +356,186 @@ public class SystemdServiceImpl implements SystemdService {
 			LOG.error("Failed to write service file: {}", serviceFile.unitName());
 			throw new RuntimeException(e.getMessage());
 		}
-		// 移除已校验确保每次都是先获取模板再上传
-		session.removeAttribute("isGetTemplate");
-		// 重载 systemd
-		return ExecUtil.isCommandSuccessful(buildSystemdCommand(serviceFile.level(), new String[]{"systemctl", "daemon-reload"}));
+	}
+
+	/**
+	 * 通过特权助手写入系统级服务文件
+	 *
+	 * @param serviceFile 服务文件
+	 */
+	private void writeServiceFileWithHelper(ServiceFile serviceFile) {
+		try {
+			helperClient.call(HelperCommand.WRITE_UNIT, serviceFile.unitName(), serviceFile.content());
+		} catch (HelperException e) {
+			LOG.error("Failed to write service file: {}", serviceFile.unitName());
+			if (e.getStatus() == HelperStatus.ALREADY_EXISTS) {
+				throw new RuntimeException(serviceFile.unitName() + "File already exists");
+			}
+			throw new RuntimeException(e.getMessage());
+		}
+	}
+
+	@Override
+	public void exportServices(String level, OutputStream outputStream) {
+		Path baseDir = resolveServiceDir(level);
+		// 逐个目录项流式写出，不在内存中收集文件列表
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(baseDir, "*.service")) {
+			WritableByteChannel channel = Channels.newChannel(outputStream);
+			for (Path file : stream) {
+				if (!Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+					continue;
+				}
+				try {
+					TarArchiveUtil.writeFileEntry(channel, file.getFileName().toString(), file);
+				} catch (IllegalArgumentException e) {
+					// 头部在写出前构建，跳过无法编码的文件不会破坏已写出的归档
+					LOG.warn("Skipped service file {} in export: {}", file, e.getMessage());
+				}
+			}
+			TarArchiveUtil.writeEnd(channel);
+			outputStream.flush();
+		} catch (IOException e) {
+			LOG.error("Failed to export service files: {}", e.getMessage());
+			throw new RuntimeException(e.getMessage());
+		}
+	}
+
+	@Override
+	public ImportResult importServices(String level, InputStream inputStream) {
+		Path baseDir = resolveServiceDir(level);
+		boolean useHelper = useHelper(level);
+		// 通过特权助手写入时连续发送请求，最后统一等待结果
+		List<Map.Entry<String, CompletableFuture<String>>> pendingWrites = new ArrayList<>();
+		List<String> imported = new ArrayList<>();
+		List<String> skipped = new ArrayList<>();
+		List<String> rejected = new ArrayList<>();
+		String failure = null;
+		try {
+			TarArchiveUtil.Entry entry;
+			while ((entry = TarArchiveUtil.readEntry(inputStream)) != null) {
+				if (!entry.isFile()) {
+					TarArchiveUtil.skipContent(inputStream, entry);
+					continue;
+				}
+				// 只取文件名，忽略归档内的目录结构
+				String unitName = entry.name().substring(entry.name().lastIndexOf('/') + 1);
+				// 单个文件未通过校验只拒绝该文件，不中断整个导入
+				if (entry.size() > MAX_SERVICE_FILE_SIZE) {
+					LOG.warn("Service file too large, rejected: {}", unitName);
+					rejected.add(unitName);
+					TarArchiveUtil.skipContent(inputStream, entry);
+					continue;
+				}
+				String content = new String(TarArchiveUtil.readContent(inputStream, entry), StandardCharsets.UTF_8);
+				Path target;
+				try {
+					ServiceFileCheckUtil.checkServiceFile(new ServiceFile(level, unitName, content));
+					target = resolveServiceFile(baseDir, unitName);
+				} catch (IllegalArgumentException | SecurityException e) {
+					LOG.warn("Invalid service file, rejected: {}", e.getMessage());
+					rejected.add(unitName);
+					continue;
+				}
+				if (useHelper) {
+					pendingWrites.add(Map.entry(unitName, helperClient.send(HelperCommand.WRITE_UNIT, unitName, content)));
+					continue;
+				}
+				try {
+					Files.writeString(target, content, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+					imported.add(unitName);
+				} catch (FileAlreadyExistsException e) {
+					LOG.warn("Service file already exists, skipped: {}", unitName);
+					skipped.add(unitName);
+				}
+			}
+		} catch (IOException e) {
+			LOG.error("Failed to import service files: {}", e.getMessage());
+			failure = e.getMessage();
+		} finally {
+			for (Map.Entry<String, CompletableFuture<String>> pendingWrite : pendingWrites) {
+				try {
+					helperClient.await(pendingWrite.getValue());
+					imported.add(pendingWrite.getKey());
+				} catch (HelperException e) {
+					// 与直接写入保持一致：已存在跳过，校验失败拒绝，写入失败使导入失败
+					switch (e.getStatus()) {
+						case ALREADY_EXISTS -> {
+							LOG.warn("Service file already exists, skipped: {}", pendingWrite.getKey());
+							skipped.add(pendingWrite.getKey());
+						}
+						case REJECTED -> {
+							LOG.warn("Invalid service file, rejected: {}", e.getMessage());
+							rejected.add(pendingWrite.getKey());
+						}
+						default -> {
+							LOG.error("Failed to write service file {}: {}", pendingWrite.getKey(), e.getMessage());
+							if (failure == null) {
+								failure = e.getMessage();
+							}
+						}
+					}
+				}
+			}
+			// 无论是否中途失败，已写入的文件统一只重载一次
+			if (!imported.isEmpty() && !reloadDaemon(level)) {
+				LOG.error("Failed to reload systemd after importing {} service files", imported.size());
+			}
+		}
+		if (failure != null) {
+			// 已写入的文件不回滚，告知客户端已导入的数量，重新导入时这些文件会被跳过
+			throw new ImportException("Imported " + imported.size() + " service files before failure: " + failure,
+					new ImportResult(imported, skipped, rejected));
+		}
+		return new ImportResult(imported, skipped, rejected);
+	}
+
+	/**
+	 * 获取服务文件目录
+	 *
+	 * @param level 系统级别
+	 */
+	private Path resolveServiceDir(String level) {
+		return switch (level) {
+			case "system" -> Paths.get(Objects.requireNonNull(env.getProperty("systemd.service.system")));
+			case "user" ->
+					Paths.get(env.getProperty("systemd.service.user.home") + env.getProperty("systemd.service.user.path"));
+			default -> throw new IllegalStateException("Unexpected level");
+		};
+	}
+
+	/**
+	 * 获取服务文件路径
+	 *
+	 * @param level    系统级别
+	 * @param unitName 服务名
+	 */
+	private Path resolveServiceFile(String level, String unitName) {
+		return resolveServiceFile(resolveServiceDir(level), unitName);
+	}
+
+	/**
+	 * 获取服务文件路径
+	 *
+	 * @param baseDir  服务文件目录
+	 * @param unitName 服务名
+	 */
+	private Path resolveServiceFile(Path baseDir, String unitName) {
+		Path target = baseDir.resolve(unitName).normalize();
+		if (!target.startsWith(baseDir)) {
+			throw new SecurityException("Path traversal detected");
+		}
+		return target;
+	}
+
+	/**
+	 * 用户服务单元缓存
+	 *
+	 * @param serviceUnits 服务单元列表
+	 * @param expiresAt    过期时间戳（毫秒）
+	 */
+	private record CachedServiceUnits(
+			List<ServiceUnitInfo> serviceUnits,
+			long expiresAt
+	) {
 	}
 }
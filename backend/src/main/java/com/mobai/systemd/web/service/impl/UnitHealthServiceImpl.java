@@ -0,0 +1,261 @@
+package com.mobai.systemd.web.service.impl;
+
+import com.mobai.systemd.web.entity.UnitHealth;
+import com.mobai.systemd.web.enums.UnitHealthStatus;
+import com.mobai.systemd.web.service.UnitHealthService;
+import com.mobai.systemd.web.util.ExecUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 服务单元健康监测服务实现类
+ * <p>
+ * 后台定时执行一次 {@code systemctl show} 批量获取所有已加载服务的 ActiveState 和 NRestarts，
+ * 每个服务只保存上一次的状态和滑动窗口内最多 threshold 个事件时间戳，
+ * 因此每轮开销与服务数量线性相关，内存占用与运行时长无关。
+ *
+ * @author Qian-MoBai
+ */
+@Service
+public class UnitHealthServiceImpl implements UnitHealthService, DisposableBean {
+	private static final Logger LOG = LoggerFactory.getLogger(UnitHealthServiceImpl.class);
+	/**
+	 * 失败状态
+	 */
+	private static final String FAILED_STATE = "failed";
+	/**
+	 * 查询命令
+	 */
+	private final String[] command;
+	/**
+	 * 轮询间隔
+	 */
+	private final Duration interval;
+	/**
+	 * 滑动窗口大小
+	 */
+	private final long windowMillis;
+	/**
+	 * 窗口内判定为反复重启的次数
+	 */
+	private final int restartThreshold;
+	/**
+	 * 各服务的跟踪状态，仅由轮询线程修改
+	 */
+	private final Map<String, TrackedUnit> trackedUnits = new HashMap<>();
+	/**
+	 * 当前异常的服务单元
+	 */
+	private final Map<String, UnitHealth> unhealthyUnits = new ConcurrentHashMap<>();
+	/**
+	 * 状态变化监听器
+	 */
+	private final List<Consumer<UnitHealth>> listeners = new CopyOnWriteArrayList<>();
+	/**
+	 * 轮询线程
+	 */
+	private final ScheduledExecutorService scheduler;
+
+	public UnitHealthServiceImpl(Environment env) {
+		String level = env.getProperty("systemd.watcher.level", "system");
+		this.command = switch (level) {
+			case "system" -> new String[]{"systemctl", "show", "--property=Id,ActiveState,NRestarts", "*.service"};
+			case "user" -> new String[]{"systemctl", "--user", "show", "--property=Id,ActiveState,NRestarts", "*.service"};
+			default -> throw new IllegalArgumentException("Invalid level: " + level);
+		};
+		this.interval = Duration.ofMillis(env.getProperty("systemd.watcher.interval", Long.class, 10000L));
+		this.windowMillis = env.getProperty("systemd.watcher.window", Long.class, 300000L);
+		this.restartThreshold = env.getProperty("systemd.watcher.restart-threshold", Integer.class, 3);
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("unit-health").daemon().factory());
+		if (env.getProperty("systemd.watcher.enabled", Boolean.class, true)) {
+			scheduler.scheduleWithFixedDelay(this::poll, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public List<UnitHealth> listUnhealthyUnits() {
+		return unhealthyUnits.values().stream()
+				.sorted(Comparator.comparingLong(UnitHealth::timestamp).reversed())
+				.toList();
+	}
+
+	@Override
+	public void addListener(Consumer<UnitHealth> listener) {
+		listeners.add(listener);
+	}
+
+	@Override
+	public void removeListener(Consumer<UnitHealth> listener) {
+		listeners.remove(listener);
+	}
+
+	@Override
+	public void destroy() {
+		scheduler.shutdownNow();
+	}
+
+	/**
+	 * 执行一轮批量查询并更新状态
+	 */
+	private void poll() {
+		String output;
+		try {
+			output = Objects.requireNonNull(ExecUtil.executeCommand(command, interval, Level.DEBUG));
+		} catch (IOException | RuntimeException e) {
+			LOG.warn("Failed to poll service states: {}", e.getMessage());
+			return;
+		}
+		process(output, System.currentTimeMillis());
+	}
+
+	/**
+	 * 解析一轮 {@code systemctl show} 的输出并更新状态，仅由轮询线程调用
+	 *
+	 * @param output 命令输出
+	 * @param now    本轮时间
+	 */
+	void process(String output, long now) {
+		Set<String> seen = new HashSet<>(trackedUnits.size());
+		String id = null;
+		String activeState = null;
+		long restarts = 0;
+		// 每个服务一段 Key=Value，以空行分隔
+		for (String line : (output + "\n\n").lines().toList()) {
+			if (line.isBlank()) {
+				if (id != null && activeState != null) {
+					seen.add(id);
+					update(id, activeState, restarts, now);
+				}
+				id = null;
+				activeState = null;
+				restarts = 0;
+				continue;
+			}
+			int separator = line.indexOf('=');
+			if (separator < 0) {
+				continue;
+			}
+			String value = line.substring(separator + 1);
+			switch (line.substring(0, separator)) {
+				case "Id" -> id = value;
+				case "ActiveState" -> activeState = value;
+				case "NRestarts" -> restarts = parseLong(value);
+				default -> {
+				}
+			}
+		}
+		// 已卸载的服务不再跟踪
+		trackedUnits.keySet().removeIf(unitName -> !seen.contains(unitName));
+		unhealthyUnits.keySet().removeIf(unitName -> !seen.contains(unitName));
+	}
+
+	/**
+	 * 更新单个服务的状态
+	 */
+	private void update(String unitName, String activeState, long restarts, long now) {
+		TrackedUnit trackedUnit = trackedUnits.get(unitName);
+		if (trackedUnit == null) {
+			// 首次发现只记录基线，不计入事件
+			trackedUnit = new TrackedUnit(activeState, restarts);
+			trackedUnits.put(unitName, trackedUnit);
+		} else {
+			long newRestarts = restarts - trackedUnit.restarts;
+			// NRestarts 在服务被手动重启后会清零
+			for (long i = 0; i < Math.min(newRestarts, restartThreshold); i++) {
+				trackedUnit.addEvent(now);
+			}
+			if (FAILED_STATE.equals(activeState) && !FAILED_STATE.equals(trackedUnit.activeState)) {
+				trackedUnit.addEvent(now);
+			}
+			trackedUnit.activeState = activeState;
+			trackedUnit.restarts = restarts;
+		}
+		trackedUnit.expireEvents(now - windowMillis);
+		UnitHealthStatus status;
+		if (trackedUnit.events.size() >= restartThreshold) {
+			status = UnitHealthStatus.CRASH_LOOP;
+		} else if (FAILED_STATE.equals(activeState)) {
+			status = UnitHealthStatus.FAILED;
+		} else {
+			status = UnitHealthStatus.HEALTHY;
+		}
+		if (status == trackedUnit.status) {
+			return;
+		}
+		trackedUnit.status = status;
+		UnitHealth unitHealth = new UnitHealth(unitName, activeState, restarts, trackedUnit.events.size(), status, now);
+		if (status == UnitHealthStatus.HEALTHY) {
+			unhealthyUnits.remove(unitName);
+		} else {
+			unhealthyUnits.put(unitName, unitHealth);
+			LOG.warn("Service unit {} is {}, active state: {}, restarts: {}", unitName, status, activeState, restarts);
+		}
+		for (Consumer<UnitHealth> listener : listeners) {
+			try {
+				listener.accept(unitHealth);
+			} catch (RuntimeException e) {
+				LOG.warn("Failed to notify unit health listener: {}", e.getMessage());
+			}
+		}
+	}
+
+	private static long parseLong(String value) {
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * 单个服务的跟踪状态
+	 */
+	private final class TrackedUnit {
+		/**
+		 * 窗口内的事件时间戳，最多保留 restartThreshold 个
+		 */
+		private final ArrayDeque<Long> events = new ArrayDeque<>();
+		private String activeState;
+		private long restarts;
+		private UnitHealthStatus status = UnitHealthStatus.HEALTHY;
+
+		private TrackedUnit(String activeState, long restarts) {
+			this.activeState = activeState;
+			this.restarts = restarts;
+		}
+
+		private void addEvent(long timestamp) {
+			if (events.size() >= restartThreshold) {
+				events.pollFirst();
+			}
+			events.addLast(timestamp);
+		}
+
+		private void expireEvents(long before) {
+			while (!events.isEmpty() && events.peekFirst() < before) {
+				events.pollFirst();
+			}
+		}
+	}
+}
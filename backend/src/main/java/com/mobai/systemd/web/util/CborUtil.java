@@ -0,0 +1,184 @@
+package com.mobai.systemd.web.util;
+
+import com.mobai.systemd.web.entity.ResponseResult;
+import com.mobai.systemd.web.entity.ServiceUnitInfo;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * CBOR 编码工具类
+ * <p>
+ * 服务单元列表按列编码，重复度高的列（state、preset、owner）使用字典编码：
+ * <pre>
+ * {code, message, data: {count, unitFileSuffix: text, unitFile: [text...], state: {dictionary: [text...], codes: bytes | [uint...]}, ...}}
+ * </pre>
+ * 所有服务文件名共有的后缀（通常为 .service）只写一次，unitFile 中为去掉后缀的名称。
+ * 字典不超过 256 项时 codes 为每行 1 字节的字节串，否则为整数数组。
+ *
+ * @author Qian-MoBai
+ */
+public class CborUtil {
+	private static final int MAJOR_UNSIGNED = 0;
+	private static final int MAJOR_NEGATIVE = 1;
+	private static final int MAJOR_BYTES = 2;
+	private static final int MAJOR_TEXT = 3;
+	private static final int MAJOR_ARRAY = 4;
+	private static final int MAJOR_MAP = 5;
+	private static final int NULL = 0xF6;
+
+	private CborUtil() {
+	}
+
+	/**
+	 * 以列式 CBOR 写出服务单元列表
+	 *
+	 * @param result       响应结果
+	 * @param outputStream 输出流
+	 * @throws IOException IO异常
+	 */
+	public static void writeServiceUnits(ResponseResult<List<ServiceUnitInfo>> result, OutputStream outputStream) throws IOException {
+		BufferedOutputStream out = new BufferedOutputStream(outputStream, 64 * 1024);
+		writeHead(out, MAJOR_MAP, 3);
+		writeText(out, "code");
+		writeInteger(out, result.getCode());
+		writeText(out, "message");
+		writeText(out, result.getMessage());
+		writeText(out, "data");
+		List<ServiceUnitInfo> serviceUnits = result.getData();
+		if (serviceUnits == null) {
+			out.write(NULL);
+		} else {
+			String suffix = commonSuffix(serviceUnits);
+			writeHead(out, MAJOR_MAP, 6);
+			writeText(out, "count");
+			writeInteger(out, serviceUnits.size());
+			writeText(out, "unitFileSuffix");
+			writeText(out, suffix);
+			writeText(out, "unitFile");
+			writeHead(out, MAJOR_ARRAY, serviceUnits.size());
+			for (ServiceUnitInfo serviceUnit : serviceUnits) {
+				String unitFile = serviceUnit.unitFile();
+				writeText(out, unitFile == null ? null : unitFile.substring(0, unitFile.length() - suffix.length()));
+			}
+			writeText(out, "state");
+			writeDictionaryColumn(out, serviceUnits, ServiceUnitInfo::state);
+			writeText(out, "preset");
+			writeDictionaryColumn(out, serviceUnits, ServiceUnitInfo::preset);
+			writeText(out, "owner");
+			writeDictionaryColumn(out, serviceUnits, ServiceUnitInfo::owner);
+		}
+		out.flush();
+	}
+
+	/**
+	 * 计算所有服务文件名共有的后缀
+	 */
+	private static String commonSuffix(List<ServiceUnitInfo> serviceUnits) {
+		if (serviceUnits.isEmpty()) {
+			return "";
+		}
+		String suffix = serviceUnits.getFirst().unitFile();
+		for (ServiceUnitInfo serviceUnit : serviceUnits) {
+			String unitFile = serviceUnit.unitFile();
+			if (suffix == null || unitFile == null) {
+				return "";
+			}
+			int length = 0;
+			while (length < suffix.length() && length < unitFile.length()
+					&& suffix.charAt(suffix.length() - 1 - length) == unitFile.charAt(unitFile.length() - 1 - length)) {
+				length++;
+			}
+			if (length < suffix.length()) {
+				suffix = suffix.substring(suffix.length() - length);
+			}
+			if (suffix.isEmpty()) {
+				break;
+			}
+		}
+		// 不拆分代理对
+		return !suffix.isEmpty() && Character.isLowSurrogate(suffix.charAt(0)) ? suffix.substring(1) : suffix;
+	}
+
+	/**
+	 * 写出字典编码的列
+	 */
+	private static void writeDictionaryColumn(OutputStream out, List<ServiceUnitInfo> serviceUnits, Function<ServiceUnitInfo, String> column) throws IOException {
+		Map<String, Integer> dictionary = new HashMap<>();
+		int[] codes = new int[serviceUnits.size()];
+		for (int i = 0; i < codes.length; i++) {
+			codes[i] = dictionary.computeIfAbsent(column.apply(serviceUnits.get(i)), key -> dictionary.size());
+		}
+		String[] values = new String[dictionary.size()];
+		dictionary.forEach((value, code) -> values[code] = value);
+		writeHead(out, MAJOR_MAP, 2);
+		writeText(out, "dictionary");
+		writeHead(out, MAJOR_ARRAY, values.length);
+		for (String value : values) {
+			writeText(out, value);
+		}
+		writeText(out, "codes");
+		if (values.length <= 256) {
+			writeHead(out, MAJOR_BYTES, codes.length);
+			for (int code : codes) {
+				out.write(code);
+			}
+		} else {
+			writeHead(out, MAJOR_ARRAY, codes.length);
+			for (int code : codes) {
+				writeInteger(out, code);
+			}
+		}
+	}
+
+	private static void writeText(OutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.write(NULL);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeHead(out, MAJOR_TEXT, bytes.length);
+		out.write(bytes);
+	}
+
+	private static void writeInteger(OutputStream out, long value) throws IOException {
+		if (value >= 0) {
+			writeHead(out, MAJOR_UNSIGNED, value);
+		} else {
+			writeHead(out, MAJOR_NEGATIVE, -1 - value);
+		}
+	}
+
+	/**
+	 * 写出类型和长度头
+	 */
+	private static void writeHead(OutputStream out, int majorType, long length) throws IOException {
+		int major = majorType << 5;
+		if (length < 24) {
+			out.write(major | (int) length);
+		} else if (length < 0x100) {
+			out.write(major | 24);
+			out.write((int) length);
+		} else if (length < 0x10000) {
+			out.write(major | 25);
+			out.write((int) (length >>> 8));
+			out.write((int) length);
+		} else if (length < 0x100000000L) {
+			out.write(major | 26);
+			for (int shift = 24; shift >= 0; shift -= 8) {
+				out.write((int) (length >>> shift));
+			}
+		} else {
+			out.write(major | 27);
+			for (int shift = 56; shift >= 0; shift -= 8) {
+				out.write((int) (length >>> shift));
+			}
+		}
+	}
+}
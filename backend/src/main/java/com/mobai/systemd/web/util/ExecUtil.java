@@ -3,13 +3,16 @@ package com.mobai.systemd.web.util;
 import org.apache.commons.exec.CommandLine;
 import org.apache.commons.exec.DefaultExecutor;
 import org.apache.commons.exec.ExecuteException;
+import org.apache.commons.exec.ExecuteWatchdog;
 import org.apache.commons.exec.PumpStreamHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
 /**
  * 执行命令工具类
@@ -28,12 +31,40 @@ public class ExecUtil {
 	 * @throws IOException IO异常
 	 */
 	public static String executeCommand(String[] command) throws IOException {
+		return executeCommand(command, null);
+	}
+
+	/**
+	 * 执行命令并返回结果，超时后终止进程
+	 *
+	 * @param command 命令字符串数组
+	 * @param timeout 超时时间，为 null 时不限制
+	 * @return 执行结果
+	 * @throws IOException IO异常
+	 */
+	public static String executeCommand(String[] command, Duration timeout) throws IOException {
+		return executeCommand(command, timeout, Level.INFO);
+	}
+
+	/**
+	 * 执行命令并返回结果，超时后终止进程
+	 *
+	 * @param command      命令字符串数组
+	 * @param timeout      超时时间，为 null 时不限制
+	 * @param successLevel 执行成功时的日志级别，定时执行的命令可使用 DEBUG 避免刷屏
+	 * @return 执行结果
+	 * @throws IOException IO异常
+	 */
+	public static String executeCommand(String[] command, Duration timeout, Level successLevel) throws IOException {
 		String commandStr = String.join(" ", command);
 		CommandLine cmdLine = CommandLine.parse(commandStr);
 		DefaultExecutor executor = DefaultExecutor.builder().get();
 		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 		PumpStreamHandler streamHandler = new PumpStreamHandler(outputStream);
 		executor.setStreamHandler(streamHandler);
+		if (timeout != null) {
+			executor.setWatchdog(ExecuteWatchdog.builder().setTimeout(timeout).get());
+		}
 		try {
 			int exitValue = executor.execute(cmdLine);
 			String result = outputStream.toString(StandardCharsets.UTF_8);
@@ -41,7 +72,9 @@ public class ExecUtil {
 				LOG.error("命令执行失败，退出码: {}，命令: {}，错误信息: {}", exitValue, commandStr, result);
 				throw new ExecuteException("命令执行失败，退出码: " + exitValue, exitValue);
 			}
-			LOG.info("命令执行成功: {}，输出: {}", commandStr, result);
+			LOG.atLevel(successLevel).log("命令执行成功: {}", commandStr);
+			// 输出可能很大（如批量状态查询），仅在调试时记录
+			LOG.debug("命令输出: {}", result);
 			return result;
 		} catch (IOException e) {
 			LOG.error("执行命令时发生IO异常: {}", commandStr, e);
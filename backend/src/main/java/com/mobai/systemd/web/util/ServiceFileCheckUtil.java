@@ -0,0 +1,108 @@
+package com.mobai.systemd.web.util;
+
+import com.mobai.systemd.web.entity.ServiceFile;
+import com.mobai.systemd.web.enums.ServiceFileContentBlacklist;
+import com.mobai.systemd.web.enums.UnitBlacklist;
+import com.mobai.systemd.web.enums.WantedByEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 服务文件检查工具类
+ * <p>
+ * Web 进程和特权助手进程共用同一套检查
+ *
+ * @author Qian-MoBai
+ */
+public class ServiceFileCheckUtil {
+	private static final Logger LOG = LoggerFactory.getLogger(ServiceFileCheckUtil.class);
+	/**
+	 * 合法的服务名
+	 */
+	private static final Pattern SAFE_SERVICE_NAME = Pattern.compile("^(?:[a-zA-Z0-9_.@-]|\\\\x[0-9a-fA-F]{2})+\\.service$");
+	/**
+	 * 服务单元后缀
+	 */
+	private static final String SERVICE_SUFFIX = ".service";
+	/**
+	 * 合法的用户名
+	 */
+	private static final Pattern SAFE_USER_NAME = Pattern.compile("^[a-z_][a-z0-9_.-]*\\$?$");
+
+	private ServiceFileCheckUtil() {
+	}
+
+	/**
+	 * 检查服务名是否合法
+	 *
+	 * @param unitName 服务名
+	 * @return 是否不合法（在黑名单中或格式错误）
+	 */
+	public static boolean checkUnitName(String unitName) {
+		if (unitName == null) {
+			return true;
+		}
+		long serviceBlacklistCount = Arrays.stream(UnitBlacklist.values())
+				.filter(unitBlacklist -> unitBlacklist.getUnitName().equals(unitName)
+						|| (unitBlacklist.getUnitName() + SERVICE_SUFFIX).equals(unitName))
+				.count();
+		return serviceBlacklistCount > 0 || !SAFE_SERVICE_NAME.matcher(unitName).matches();
+	}
+
+	/**
+	 * 检查用户名是否合法
+	 *
+	 * @param userName 用户名
+	 * @return 是否不合法
+	 */
+	public static boolean checkUserName(String userName) {
+		return userName == null || !SAFE_USER_NAME.matcher(userName).matches();
+	}
+
+	/**
+	 * 检查服务文件是否合法，不合法时抛出异常
+	 *
+	 * @param serviceFile 服务文件
+	 */
+	public static void checkServiceFile(ServiceFile serviceFile) {
+		// 检查参数
+		if (!StringUtils.hasText(serviceFile.unitName())
+				|| !StringUtils.hasText(serviceFile.content())
+				|| !StringUtils.hasText(serviceFile.level())) {
+			LOG.error("Invalid parameters");
+			throw new IllegalArgumentException("Invalid parameters");
+		}
+		// 检查服务名是否合法
+		if (checkUnitName(serviceFile.unitName())) {
+			throw new SecurityException("Invalid ServiceName: " + serviceFile.unitName());
+		}
+		// 检查最小条件
+		if (!serviceFile.content().contains("[Unit]")
+				|| !serviceFile.content().contains("[Service]")
+				|| !serviceFile.content().contains("ExecStart=")
+				|| !serviceFile.content().contains("[Install]")
+				|| !serviceFile.content().contains("WantedBy=")) {
+			LOG.error("Invalid service file: {}", serviceFile.unitName());
+			throw new IllegalArgumentException("Invalid service file: " + serviceFile.unitName());
+		}
+		long serviceFileBlacklistCount = Arrays.stream(ServiceFileContentBlacklist.values())
+				.filter(serviceFileBlacklist -> serviceFileBlacklist.find(serviceFile.content()))
+				.count();
+		// 检查 WantedBy
+		String wantedBy = serviceFile.content().lines()
+				.filter(line -> line.startsWith("WantedBy="))
+				.collect(Collectors.joining("\n"));
+		long count = Arrays.stream(WantedByEnum.values())
+				.filter(wantedByEnum -> wantedBy.contains(wantedByEnum.getValue()))
+				.count();
+		if (serviceFileBlacklistCount > 0 || count == 0) {
+			LOG.error("Invalid service file: {}", serviceFile.unitName());
+			throw new IllegalArgumentException("Invalid service file: " + serviceFile.unitName());
+		}
+	}
+}
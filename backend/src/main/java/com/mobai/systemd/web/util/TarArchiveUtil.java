@@ -0,0 +1,293 @@
+package com.mobai.systemd.web.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+/**
+ * tar 归档工具类（ustar 格式）
+ * <p>
+ * 只处理普通文件，按流式读写，内存占用与文件数量无关。超过 100 字节的文件名使用 GNU 长文件名条目（类型 L）。
+ *
+ * @author Qian-MoBai
+ */
+public class TarArchiveUtil {
+	/**
+	 * 块大小
+	 */
+	public static final int BLOCK_SIZE = 512;
+	/**
+	 * 文件名最大长度
+	 */
+	private static final int NAME_LENGTH = 100;
+	/**
+	 * GNU 长文件名条目类型
+	 */
+	private static final char TYPE_LONG_NAME = 'L';
+	/**
+	 * GNU 长文件名条目名称
+	 */
+	private static final String LONG_NAME_ENTRY = "././@LongLink";
+	/**
+	 * 长文件名最大字节数
+	 */
+	private static final int MAX_LONG_NAME_LENGTH = 4096;
+
+	private TarArchiveUtil() {
+	}
+
+	/**
+	 * 写入一个文件条目，文件内容通过 {@link FileChannel#transferTo} 写入，
+	 * 目标为文件或套接字通道时可避免用户态拷贝，Servlet 输出流包装的通道仍需经过缓冲区复制
+	 *
+	 * @param channel 输出通道
+	 * @param name    条目名称
+	 * @param file    文件路径
+	 * @throws IOException IO异常
+	 */
+	public static void writeFileEntry(WritableByteChannel channel, String name, Path file) throws IOException {
+		try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = fileChannel.size();
+			FileTime modifiedTime = Files.getLastModifiedTime(file);
+			long modifiedSeconds = modifiedTime.toMillis() / 1000;
+			// 先构建全部头部，出错时不会写出不完整的条目
+			byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+			byte[] header = buildHeader(truncate(nameBytes), size, modifiedSeconds, '0');
+			if (nameBytes.length > NAME_LENGTH) {
+				// 内容为以 NUL 结尾的完整文件名
+				byte[] longName = Arrays.copyOf(nameBytes, nameBytes.length + 1);
+				writeFully(channel, ByteBuffer.wrap(buildHeader(LONG_NAME_ENTRY.getBytes(StandardCharsets.US_ASCII), longName.length, modifiedSeconds, TYPE_LONG_NAME)));
+				writeFully(channel, ByteBuffer.wrap(longName));
+				writeFully(channel, ByteBuffer.allocate(padding(longName.length)));
+			}
+			writeFully(channel, ByteBuffer.wrap(header));
+			long position = 0;
+			while (position < size) {
+				long transferred = fileChannel.transferTo(position, size - position, channel);
+				if (transferred <= 0) {
+					// 文件在传输过程中被截断
+					throw new EOFException("File truncated while archiving: " + file);
+				}
+				position += transferred;
+			}
+			writeFully(channel, ByteBuffer.allocate(padding(size)));
+		}
+	}
+
+	/**
+	 * 写入归档结束标记（两个空块）
+	 *
+	 * @param channel 输出通道
+	 * @throws IOException IO异常
+	 */
+	public static void writeEnd(WritableByteChannel channel) throws IOException {
+		writeFully(channel, ByteBuffer.allocate(BLOCK_SIZE * 2));
+	}
+
+	/**
+	 * 读取下一个条目的头部，返回 null 表示归档结束
+	 *
+	 * @param inputStream 输入流
+	 * @return 条目头部
+	 * @throws IOException IO异常
+	 */
+	public static Entry readEntry(InputStream inputStream) throws IOException {
+		String longName = null;
+		while (true) {
+			byte[] header = inputStream.readNBytes(BLOCK_SIZE);
+			if (header.length == 0 || isZeroBlock(header)) {
+				if (longName != null) {
+					throw new EOFException("Missing tar entry after long name");
+				}
+				return null;
+			}
+			if (header.length < BLOCK_SIZE) {
+				throw new EOFException("Truncated tar header");
+			}
+			long checksum = parseOctal(header, 148, 8);
+			if (checksum != computeChecksum(header)) {
+				throw new IOException("Invalid tar header checksum");
+			}
+			long size = parseOctal(header, 124, 12);
+			char typeFlag = (char) header[156];
+			if (typeFlag == TYPE_LONG_NAME) {
+				// 长文件名作用于下一个条目
+				if (size > MAX_LONG_NAME_LENGTH) {
+					throw new IOException("Tar long name too long: " + size);
+				}
+				byte[] content = readContent(inputStream, new Entry(LONG_NAME_ENTRY, size, typeFlag));
+				longName = parseString(content, 0, content.length);
+				continue;
+			}
+			String name = parseString(header, 0, NAME_LENGTH);
+			String prefix = parseString(header, 345, 155);
+			if (longName != null) {
+				name = longName;
+			} else if (!prefix.isEmpty()) {
+				name = prefix + "/" + name;
+			}
+			return new Entry(name, size, typeFlag);
+		}
+	}
+
+	/**
+	 * 读取条目内容
+	 *
+	 * @param inputStream 输入流
+	 * @param entry       条目
+	 * @return 条目内容
+	 * @throws IOException IO异常
+	 */
+	public static byte[] readContent(InputStream inputStream, Entry entry) throws IOException {
+		byte[] content = inputStream.readNBytes((int) entry.size());
+		if (content.length < entry.size()) {
+			throw new EOFException("Truncated tar entry: " + entry.name());
+		}
+		inputStream.skipNBytes(padding(entry.size()));
+		return content;
+	}
+
+	/**
+	 * 跳过条目内容
+	 *
+	 * @param inputStream 输入流
+	 * @param entry       条目
+	 * @throws IOException IO异常
+	 */
+	public static void skipContent(InputStream inputStream, Entry entry) throws IOException {
+		inputStream.skipNBytes(entry.size() + padding(entry.size()));
+	}
+
+	/**
+	 * 构建 ustar 头部
+	 */
+	private static byte[] buildHeader(byte[] nameBytes, long size, long modifiedSeconds, char typeFlag) {
+		byte[] header = new byte[BLOCK_SIZE];
+		System.arraycopy(nameBytes, 0, header, 0, nameBytes.length);
+		writeOctal(header, 100, 8, 0644);
+		writeOctal(header, 108, 8, 0);
+		writeOctal(header, 116, 8, 0);
+		writeOctal(header, 124, 12, size);
+		writeOctal(header, 136, 12, modifiedSeconds);
+		header[156] = (byte) typeFlag;
+		byte[] magic = "ustar\u000000".getBytes(StandardCharsets.US_ASCII);
+		System.arraycopy(magic, 0, header, 257, magic.length);
+		writeOctal(header, 148, 8, computeChecksum(header));
+		return header;
+	}
+
+	/**
+	 * 截断到头部文件名字段长度，不截断 UTF-8 多字节字符
+	 */
+	private static byte[] truncate(byte[] nameBytes) {
+		if (nameBytes.length <= NAME_LENGTH) {
+			return nameBytes;
+		}
+		int length = NAME_LENGTH;
+		while ((nameBytes[length] & 0xC0) == 0x80) {
+			length--;
+		}
+		return Arrays.copyOf(nameBytes, length);
+	}
+
+	/**
+	 * 计算头部校验和（校验和字段按空格计算）
+	 */
+	private static long computeChecksum(byte[] header) {
+		long sum = 0;
+		for (int i = 0; i < BLOCK_SIZE; i++) {
+			sum += (i >= 148 && i < 156) ? ' ' : (header[i] & 0xFF);
+		}
+		return sum;
+	}
+
+	private static void writeOctal(byte[] header, int offset, int length, long value) {
+		String octal = Long.toOctalString(value);
+		if (octal.length() > length - 1) {
+			throw new IllegalArgumentException("Value too large for tar header: " + value);
+		}
+		// 前导补 0，最后一位为 NUL
+		int start = offset + length - 1 - octal.length();
+		for (int i = offset; i < start; i++) {
+			header[i] = '0';
+		}
+		System.arraycopy(octal.getBytes(StandardCharsets.US_ASCII), 0, header, start, octal.length());
+		header[offset + length - 1] = 0;
+	}
+
+	private static long parseOctal(byte[] header, int offset, int length) throws IOException {
+		long value = 0;
+		for (int i = offset; i < offset + length; i++) {
+			byte b = header[i];
+			if (b == 0 || b == ' ') {
+				if (value > 0) {
+					break;
+				}
+				continue;
+			}
+			if (b < '0' || b > '7') {
+				throw new IOException("Invalid octal value in tar header");
+			}
+			value = (value << 3) + (b - '0');
+		}
+		return value;
+	}
+
+	private static String parseString(byte[] header, int offset, int length) {
+		int end = offset;
+		while (end < offset + length && header[end] != 0) {
+			end++;
+		}
+		return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+	}
+
+	private static boolean isZeroBlock(byte[] block) {
+		for (byte b : block) {
+			if (b != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int padding(long size) {
+		return (int) ((BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE);
+	}
+
+	private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * tar 条目
+	 *
+	 * @param name     条目名称
+	 * @param size     内容大小
+	 * @param typeFlag 条目类型
+	 */
+	public record Entry(
+			String name,
+			long size,
+			char typeFlag
+	) {
+		/**
+		 * 是否为普通文件
+		 *
+		 * @return 是否为普通文件
+		 */
+		public boolean isFile() {
+			return typeFlag == '0' || typeFlag == 0;
+		}
+	}
+}
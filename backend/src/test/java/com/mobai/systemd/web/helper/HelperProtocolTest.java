@@ -0,0 +1,84 @@
+package com.mobai.systemd.web.helper;
+
+import com.mobai.systemd.web.enums.HelperCommand;
+import com.mobai.systemd.web.enums.HelperStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HelperProtocolTest {
+	@Test
+	void requestRoundTrip() throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(outputStream);
+		HelperProtocol.writeRequest(out, 7, HelperCommand.WRITE_UNIT, "foo.service", null);
+		HelperProtocol.writeRequest(out, 8, HelperCommand.DAEMON_RELOAD);
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+		HelperProtocol.Request request = HelperProtocol.readRequest(in);
+		assertNotNull(request);
+		assertEquals(7, request.id());
+		assertEquals(HelperCommand.WRITE_UNIT.getCode(), request.command());
+		assertEquals(Arrays.asList("foo.service", null), request.args());
+		request = HelperProtocol.readRequest(in);
+		assertNotNull(request);
+		assertEquals(8, request.id());
+		assertTrue(request.args().isEmpty());
+		assertNull(HelperProtocol.readRequest(in));
+	}
+
+	@Test
+	void responseRoundTrip() throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(outputStream);
+		HelperProtocol.writeResponse(out, new HelperProtocol.Response(3, HelperStatus.OK, "服务列表"));
+		HelperProtocol.writeResponse(out, new HelperProtocol.Response(4, HelperStatus.REJECTED, null));
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+		assertEquals(new HelperProtocol.Response(3, HelperStatus.OK, "服务列表"), HelperProtocol.readResponse(in));
+		assertEquals(new HelperProtocol.Response(4, HelperStatus.REJECTED, null), HelperProtocol.readResponse(in));
+		assertNull(HelperProtocol.readResponse(in));
+	}
+
+	@Test
+	void rejectOverLimitLength() throws IOException {
+		// 请求字符串上限为 1 MiB
+		assertThrows(IOException.class, () -> HelperProtocol.readRequest(requestWithStringLength(1024 * 1024 + 1)));
+		assertThrows(IOException.class, () -> HelperProtocol.readRequest(requestWithStringLength(-2)));
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(outputStream);
+		out.writeInt(1);
+		out.writeByte(HelperStatus.OK.getCode());
+		out.writeInt(Integer.MAX_VALUE);
+		assertThrows(IOException.class, () -> HelperProtocol.readResponse(new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray()))));
+	}
+
+	@Test
+	void rejectTooManyArguments() throws IOException {
+		assertThrows(IllegalArgumentException.class,
+				() -> HelperProtocol.writeRequest(new DataOutputStream(new ByteArrayOutputStream()), 1, HelperCommand.LIST, "a", "b", "c", "d", "e"));
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(outputStream);
+		out.writeInt(1);
+		out.writeByte(HelperCommand.LIST.getCode());
+		out.writeByte(5);
+		assertThrows(IOException.class, () -> HelperProtocol.readRequest(new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray()))));
+	}
+
+	private static DataInputStream requestWithStringLength(int length) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(outputStream);
+		out.writeInt(1);
+		out.writeByte(HelperCommand.LIST.getCode());
+		out.writeByte(1);
+		out.writeInt(length);
+		return new DataInputStream(new ByteArrayInputStream(outputStream.toByteArray()));
+	}
+}
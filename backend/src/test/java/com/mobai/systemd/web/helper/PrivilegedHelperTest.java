@@ -0,0 +1,112 @@
+package com.mobai.systemd.web.helper;
+
+import com.mobai.systemd.web.enums.HelperCommand;
+import com.mobai.systemd.web.enums.HelperStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrivilegedHelperTest {
+	private static final String CONTENT = """
+			[Unit]
+			Description=test
+			[Service]
+			ExecStart=/bin/true
+			[Install]
+			WantedBy=multi-user.target
+			""";
+
+	@TempDir
+	Path root;
+
+	@Test
+	void rejectBlacklistedUnit() {
+		assertRejected(HelperCommand.OPERATE, "stop", "dbus.service");
+		assertRejected(HelperCommand.OPERATE, "stop", "systemd");
+		assertRejected(HelperCommand.WRITE_UNIT, "logind.service", CONTENT);
+	}
+
+	@Test
+	void rejectBlacklistedContent() {
+		assertRejected(HelperCommand.WRITE_UNIT, "evil.service", CONTENT.replace("/bin/true", "/bin/rm -rf /"));
+		assertRejected(HelperCommand.WRITE_UNIT, "evil.service", "[Unit]\nDescription=missing sections\n");
+	}
+
+	@Test
+	void rejectUnknownOperation() {
+		assertRejected(HelperCommand.OPERATE, "mask", "foo.service");
+		assertRejected(HelperCommand.OPERATE, "start; reboot", "foo.service");
+		HelperProtocol.Response response = execute(99);
+		assertEquals(HelperStatus.REJECTED, response.status());
+	}
+
+	@Test
+	void rejectPathTraversal() throws IOException {
+		assertRejected(HelperCommand.WRITE_UNIT, "../evil.service", CONTENT);
+		assertRejected(HelperCommand.WRITE_UNIT, "/etc/evil.service", CONTENT);
+		assertRejected(HelperCommand.OPERATE, "start", "../evil.service");
+		try (var files = Files.list(root)) {
+			assertEquals(1, files.count());
+		}
+		assertFalse(Files.exists(root.resolve("evil.service")));
+	}
+
+	@Test
+	void rejectInvalidUserName() {
+		assertRejected(HelperCommand.LIST, "root; reboot");
+		assertRejected(HelperCommand.LIST, "../root");
+		assertRejected(HelperCommand.LIST, "Root");
+	}
+
+	@Test
+	void rejectWrongArgumentCount() {
+		assertRejected(HelperCommand.LIST, "alice", "bob");
+		assertRejected(HelperCommand.OPERATE, "start");
+		assertRejected(HelperCommand.OPERATE, "start", "foo.service", "bar.service");
+		assertRejected(HelperCommand.OPERATE, "start", null);
+		assertRejected(HelperCommand.WRITE_UNIT, "foo.service");
+		assertRejected(HelperCommand.DAEMON_RELOAD, "now");
+	}
+
+	@Test
+	void writeUnit() throws IOException {
+		HelperProtocol.Response response = execute(HelperCommand.WRITE_UNIT, "foo.service", CONTENT);
+		assertEquals(HelperStatus.OK, response.status());
+		Path file = systemDir().resolve("foo.service");
+		assertEquals(CONTENT, Files.readString(file));
+		assertEquals("rw-r--r--", PosixFilePermissions.toString(Files.getPosixFilePermissions(file)));
+		response = execute(HelperCommand.WRITE_UNIT, "foo.service", CONTENT.replace("test", "other"));
+		assertEquals(HelperStatus.ALREADY_EXISTS, response.status());
+		assertEquals(CONTENT, Files.readString(file));
+	}
+
+	private void assertRejected(HelperCommand command, String... args) {
+		HelperProtocol.Response response = execute(command, args);
+		assertEquals(HelperStatus.REJECTED, response.status(), () -> command + " " + Arrays.toString(args) + ": " + response.payload());
+	}
+
+	private HelperProtocol.Response execute(HelperCommand command, String... args) {
+		return execute(command.getCode(), args);
+	}
+
+	private HelperProtocol.Response execute(int command, String... args) {
+		PrivilegedHelper helper = new PrivilegedHelper(systemDir());
+		return helper.execute(new HelperProtocol.Request(1, command, Arrays.asList(args)));
+	}
+
+	private Path systemDir() {
+		Path systemDir = root.resolve("system");
+		try {
+			return Files.createDirectories(systemDir);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package com.mobai.systemd.web.service.impl;
+
+import com.mobai.systemd.web.entity.AuditRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditServiceImplTest {
+	private static final int SEGMENT_SIZE = 8192;
+
+	@Test
+	void queryAcrossRotationAndRestart(@TempDir Path dir) throws Exception {
+		AuditServiceImpl auditService = create(dir, 100);
+		recordRange(auditService, 1, 500);
+		auditService.destroy();
+		assertTrue(listSegments(dir).size() > 2);
+
+		auditService = create(dir, 100);
+		assertTimestamps(auditService.query(null, 0, Long.MAX_VALUE, 10), 500, 491);
+		List<AuditRecord> unitRecords = auditService.query("even.service", 0, Long.MAX_VALUE, 1000);
+		assertEquals(250, unitRecords.size());
+		assertTrue(unitRecords.stream().allMatch(auditRecord -> auditRecord.timestamp() % 2 == 0));
+		assertTimestamps(unitRecords.subList(0, 3), 500, 496);
+		assertTimestamps(auditService.query(null, 120, 129, 1000), 129, 120);
+		assertTimestamps(auditService.query("odd.service", 120, 129, 2), 129, 127);
+		assertTrue(auditService.query("other.service", 0, Long.MAX_VALUE, 10).isEmpty());
+
+		// 重启后继续写入最新分段
+		recordRange(auditService, 501, 510);
+		auditService.destroy();
+		auditService = create(dir, 100);
+		assertTimestamps(auditService.query(null, 0, Long.MAX_VALUE, 20), 510, 491);
+		assertEquals(510, auditService.query(null, 0, Long.MAX_VALUE, 1000).size());
+		auditService.destroy();
+	}
+
+	@Test
+	void ignoreTornRecord(@TempDir Path dir) throws Exception {
+		AuditServiceImpl auditService = create(dir, 8);
+		recordRange(auditService, 1, 3);
+		auditService.destroy();
+		Path segment = listSegments(dir).getLast();
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			// 长度已写入但字段不完整
+			channel.write(ByteBuffer.allocate(Integer.BYTES + 3).putInt(40).put((byte) 1).put((byte) 2).put((byte) 3).flip(), end(segment));
+		}
+
+		auditService = create(dir, 8);
+		assertTimestamps(auditService.query(null, 0, Long.MAX_VALUE, 10), 3, 1);
+		// 新记录覆盖不完整的记录
+		recordRange(auditService, 4, 4);
+		auditService.destroy();
+		auditService = create(dir, 8);
+		assertTimestamps(auditService.query(null, 0, Long.MAX_VALUE, 10), 4, 1);
+		auditService.destroy();
+	}
+
+	@Test
+	void stopAtEndMarker(@TempDir Path dir) throws Exception {
+		AuditServiceImpl auditService = create(dir, 8);
+		recordRange(auditService, 1, 3);
+		auditService.destroy();
+		Path segment = listSegments(dir).getLast();
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			// 在结束标记之后复制一条完整记录，不应被读取
+			ByteBuffer first = ByteBuffer.allocate(Integer.BYTES);
+			channel.read(first, 0);
+			ByteBuffer copy = ByteBuffer.allocate(Integer.BYTES + first.flip().getInt());
+			channel.read(copy, 0);
+			channel.write(copy.flip(), end(segment) + Integer.BYTES);
+		}
+
+		auditService = create(dir, 8);
+		assertTimestamps(auditService.query(null, 0, Long.MAX_VALUE, 10), 3, 1);
+		auditService.destroy();
+	}
+
+	@Test
+	void deleteOldSegments(@TempDir Path dir) throws Exception {
+		AuditServiceImpl auditService = create(dir, 2);
+		recordRange(auditService, 1, 500);
+		auditService.destroy();
+		assertEquals(2, listSegments(dir).size());
+
+		auditService = create(dir, 2);
+		List<AuditRecord> records = auditService.query(null, 0, Long.MAX_VALUE, 1000);
+		assertTrue(records.size() < 500);
+		assertTimestamps(records, 500, 500 - records.size() + 1);
+		auditService.destroy();
+	}
+
+	private static AuditServiceImpl create(Path dir, int maxSegments) {
+		return new AuditServiceImpl(new MockEnvironment()
+				.withProperty("systemd.audit.path", dir.toString())
+				.withProperty("systemd.audit.segment-size", String.valueOf(SEGMENT_SIZE))
+				.withProperty("systemd.audit.max-segments", String.valueOf(maxSegments)));
+	}
+
+	private static void recordRange(AuditServiceImpl auditService, long from, long to) {
+		for (long timestamp = from; timestamp <= to; timestamp++) {
+			String unitName = timestamp % 2 == 0 ? "even.service" : "odd.service";
+			auditService.record(new AuditRecord(timestamp, "admin", "restart", "system", unitName, true, 10, null));
+		}
+	}
+
+	/**
+	 * 断言结果为从 newest 到 oldest 连续递减的时间戳
+	 */
+	private static void assertTimestamps(List<AuditRecord> records, long newest, long oldest) {
+		long step = records.size() > 1 ? (newest - oldest) / (records.size() - 1) : 0;
+		assertEquals(newest, records.getFirst().timestamp());
+		assertEquals(oldest, records.getLast().timestamp());
+		for (int i = 0; i < records.size(); i++) {
+			assertEquals(newest - i * step, records.get(i).timestamp());
+		}
+	}
+
+	private static List<Path> listSegments(Path dir) throws IOException {
+		try (Stream<Path> stream = Files.list(dir)) {
+			return stream.filter(path -> path.getFileName().toString().endsWith(".seg")).sorted().toList();
+		}
+	}
+
+	/**
+	 * 返回分段中已写入记录的结尾位置
+	 */
+	private static long end(Path segment) throws IOException {
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			int length;
+			while ((length = buffer.getInt(buffer.position())) > 0) {
+				buffer.position(buffer.position() + Integer.BYTES + length);
+			}
+			return buffer.position();
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package com.mobai.systemd.web.service.impl;
+
+import com.mobai.systemd.web.entity.UnitHealth;
+import com.mobai.systemd.web.enums.UnitHealthStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnitHealthServiceImplTest {
+	private static final long WINDOW = 60000;
+
+	private UnitHealthServiceImpl unitHealthService;
+	private final List<UnitHealth> notified = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		unitHealthService = new UnitHealthServiceImpl(new MockEnvironment()
+				.withProperty("systemd.watcher.enabled", "false")
+				.withProperty("systemd.watcher.window", String.valueOf(WINDOW))
+				.withProperty("systemd.watcher.restart-threshold", "3"));
+		unitHealthService.addListener(notified::add);
+	}
+
+	@AfterEach
+	void tearDown() {
+		unitHealthService.destroy();
+	}
+
+	@Test
+	void firstSeenIsBaseline() {
+		unitHealthService.process(show("a.service", "active", 7), 0);
+		unitHealthService.process(show("a.service", "active", 7), 1000);
+		assertTrue(notified.isEmpty());
+		assertTrue(unitHealthService.listUnhealthyUnits().isEmpty());
+	}
+
+	@Test
+	void restartJumpCappedAtThreshold() {
+		unitHealthService.process(show("a.service", "active", 0), 0);
+		unitHealthService.process(show("a.service", "activating", 10), 1000);
+		assertEquals(1, notified.size());
+		UnitHealth unitHealth = notified.getFirst();
+		assertEquals("a.service", unitHealth.unitName());
+		assertEquals(UnitHealthStatus.CRASH_LOOP, unitHealth.status());
+		assertEquals(10, unitHealth.restarts());
+		assertEquals(3, unitHealth.failures());
+		assertEquals(1000, unitHealth.timestamp());
+		assertEquals(List.of(unitHealth), unitHealthService.listUnhealthyUnits());
+	}
+
+	@Test
+	void resetWhenRestartsDecrease() {
+		unitHealthService.process(show("a.service", "active", 5), 0);
+		// 手动重启后 NRestarts 清零，不计入事件并以新值为基线
+		unitHealthService.process(show("a.service", "active", 2), 1000);
+		unitHealthService.process(show("a.service", "active", 3), 2000);
+		assertTrue(notified.isEmpty());
+		unitHealthService.process(show("a.service", "active", 5), 3000);
+		assertEquals(1, notified.size());
+		assertEquals(UnitHealthStatus.CRASH_LOOP, notified.getFirst().status());
+		assertEquals(3, notified.getFirst().failures());
+	}
+
+	@Test
+	void transitionIntoFailed() {
+		unitHealthService.process(show("a.service", "active", 0), 0);
+		unitHealthService.process(show("a.service", "failed", 0), 1000);
+		unitHealthService.process(show("a.service", "failed", 0), 2000);
+		assertEquals(1, notified.size());
+		assertEquals(UnitHealthStatus.FAILED, notified.getFirst().status());
+		assertEquals(1, notified.getFirst().failures());
+		assertEquals(1, unitHealthService.listUnhealthyUnits().size());
+
+		unitHealthService.process(show("a.service", "active", 0), 3000);
+		assertEquals(2, notified.size());
+		assertEquals(UnitHealthStatus.HEALTHY, notified.getLast().status());
+		assertTrue(unitHealthService.listUnhealthyUnits().isEmpty());
+	}
+
+	@Test
+	void windowExpiryBackToHealthy() {
+		unitHealthService.process(show("a.service", "active", 0), 0);
+		unitHealthService.process(show("a.service", "active", 3), 1000);
+		unitHealthService.process(show("a.service", "active", 3), 1000 + WINDOW);
+		assertEquals(1, notified.size());
+		assertEquals(UnitHealthStatus.CRASH_LOOP, notified.getFirst().status());
+
+		unitHealthService.process(show("a.service", "active", 3), 1000 + WINDOW + 1);
+		assertEquals(2, notified.size());
+		assertEquals(UnitHealthStatus.HEALTHY, notified.getLast().status());
+		assertEquals(0, notified.getLast().failures());
+		assertTrue(unitHealthService.listUnhealthyUnits().isEmpty());
+	}
+
+	@Test
+	void removeUnloadedUnits() {
+		unitHealthService.process(show("a.service", "active", 0) + show("b.service", "active", 0), 0);
+		unitHealthService.process(show("a.service", "failed", 0) + show("b.service", "active", 0), 1000);
+		assertEquals(1, unitHealthService.listUnhealthyUnits().size());
+
+		unitHealthService.process(show("b.service", "active", 0), 2000);
+		assertTrue(unitHealthService.listUnhealthyUnits().isEmpty());
+		// 重新加载后重新建立基线
+		unitHealthService.process(show("a.service", "active", 10) + show("b.service", "active", 0), 3000);
+		assertEquals(1, notified.size());
+		assertTrue(unitHealthService.listUnhealthyUnits().isEmpty());
+	}
+
+	@Test
+	void notifyOnlyOnStatusChange() {
+		for (int restarts = 0; restarts <= 5; restarts++) {
+			unitHealthService.process(show("a.service", "activating", restarts), restarts * 1000L);
+		}
+		assertEquals(1, notified.size());
+		assertEquals(UnitHealthStatus.CRASH_LOOP, notified.getFirst().status());
+		assertEquals(3000, notified.getFirst().timestamp());
+	}
+
+	/**
+	 * 构造一段 systemctl show 输出
+	 */
+	private static String show(String unitName, String activeState, long restarts) {
+		return "NRestarts=" + restarts + "\nId=" + unitName + "\nActiveState=" + activeState + "\n\n";
+	}
+}
@@ -0,0 +1,121 @@
+package com.mobai.systemd.web.util;
+
+import com.mobai.systemd.web.entity.ResponseResult;
+import com.mobai.systemd.web.entity.ServiceUnitInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CborUtilTest {
+	@Test
+	void writeNullData() throws IOException {
+		byte[] expected = concat(
+				bytes(0xA3),
+				text("code"), bytes(0x18, 200),
+				text("message"), text("OK"),
+				text("data"), bytes(0xF6)
+		);
+		assertArrayEquals(expected, write(null));
+	}
+
+	@Test
+	void writeLargeDictionary() throws IOException {
+		List<ServiceUnitInfo> serviceUnits = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			serviceUnits.add(new ServiceUnitInfo("unit" + i + ".service", "state" + i, "enabled", null));
+		}
+		byte[] cbor = write(serviceUnits);
+		// 字典超过 256 项时 codes 为整数数组，300 需要 16 位长度头
+		byte[] stateCodes = concat(text("codes"), bytes(0x99, 0x01, 0x2C, 0x00, 0x01));
+		assertTrue(indexOf(cbor, stateCodes) >= 0);
+		// 最后一行的 code 为 299
+		assertTrue(indexOf(cbor, concat(bytes(0x18, 0xFF, 0x19, 0x01, 0x00), bytes(0x19, 0x01, 0x01))) >= 0);
+		assertTrue(indexOf(cbor, concat(bytes(0x19, 0x01, 0x2B), text("preset"))) >= 0);
+		// 单项字典的 codes 为字节串
+		byte[] presetColumn = concat(text("preset"), bytes(0xA2), text("dictionary"), bytes(0x81), text("enabled"),
+				text("codes"), bytes(0x59, 0x01, 0x2C), new byte[300]);
+		assertTrue(indexOf(cbor, presetColumn) >= 0);
+		// null 作为字典项
+		byte[] ownerColumn = concat(text("owner"), bytes(0xA2), text("dictionary"), bytes(0x81, 0xF6),
+				text("codes"), bytes(0x59, 0x01, 0x2C), new byte[300]);
+		assertArrayEquals(ownerColumn, Arrays.copyOfRange(cbor, cbor.length - ownerColumn.length, cbor.length));
+	}
+
+	@Test
+	void writeLongText() throws IOException {
+		String longName = "a".repeat(70000) + ".service";
+		String mediumName = "b".repeat(300) + ".service";
+		byte[] cbor = write(List.of(
+				new ServiceUnitInfo(longName, "enabled", "enabled", null),
+				new ServiceUnitInfo(mediumName, "enabled", "enabled", null)
+		));
+		// 去掉公共后缀后 70000 字节使用 32 位长度头，300 字节使用 16 位长度头
+		byte[] unitFile = concat(text("unitFileSuffix"), text(".service"), text("unitFile"),
+				bytes(0x82, 0x7A, 0x00, 0x01, 0x11, 0x70), "a".repeat(70000).getBytes(StandardCharsets.UTF_8),
+				bytes(0x79, 0x01, 0x2C), "b".repeat(300).getBytes(StandardCharsets.UTF_8));
+		assertTrue(indexOf(cbor, unitFile) >= 0);
+	}
+
+	@Test
+	void writeUnitFileSuffix() throws IOException {
+		byte[] cbor = write(List.of(
+				new ServiceUnitInfo("nginx.service", "enabled", "enabled", null),
+				new ServiceUnitInfo("getty@.service", "static", "enabled", null),
+				new ServiceUnitInfo("x.service", "static", "enabled", null)
+		));
+		byte[] unitFile = concat(bytes(0xA6), text("count"), bytes(0x03), text("unitFileSuffix"), text(".service"),
+				text("unitFile"), bytes(0x83), text("nginx"), text("getty@"), text("x"));
+		assertTrue(indexOf(cbor, unitFile) >= 0);
+		// 没有公共后缀时名称原样写出
+		cbor = write(List.of(
+				new ServiceUnitInfo("a.service", "enabled", "enabled", null),
+				new ServiceUnitInfo("b.socket", "enabled", "enabled", null)
+		));
+		unitFile = concat(text("unitFileSuffix"), text(""), text("unitFile"), bytes(0x82), text("a.service"), text("b.socket"));
+		assertTrue(indexOf(cbor, unitFile) >= 0);
+	}
+
+	private static byte[] write(List<ServiceUnitInfo> serviceUnits) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		CborUtil.writeServiceUnits(new ResponseResult<>(HttpStatus.OK, serviceUnits), outputStream);
+		return outputStream.toByteArray();
+	}
+
+	private static byte[] text(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		return concat(bytes(0x60 | bytes.length), bytes);
+	}
+
+	private static byte[] bytes(int... values) {
+		byte[] bytes = new byte[values.length];
+		for (int i = 0; i < values.length; i++) {
+			bytes[i] = (byte) values[i];
+		}
+		return bytes;
+	}
+
+	private static byte[] concat(byte[]... parts) {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		for (byte[] part : parts) {
+			outputStream.writeBytes(part);
+		}
+		return outputStream.toByteArray();
+	}
+
+	private static int indexOf(byte[] bytes, byte[] pattern) {
+		for (int i = 0; i <= bytes.length - pattern.length; i++) {
+			if (Arrays.equals(bytes, i, i + pattern.length, pattern, 0, pattern.length)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,64 @@
+package com.mobai.systemd.web.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TarArchiveUtilTest {
+	@Test
+	void writeAndRead(@TempDir Path dir) throws IOException {
+		Path first = Files.writeString(dir.resolve("first.service"), "[Unit]\nDescription=first\n");
+		Path second = Files.write(dir.resolve("second.service"), new byte[TarArchiveUtil.BLOCK_SIZE + 1]);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		WritableByteChannel channel = Channels.newChannel(outputStream);
+		TarArchiveUtil.writeFileEntry(channel, "first.service", first);
+		TarArchiveUtil.writeFileEntry(channel, "second.service", second);
+		TarArchiveUtil.writeEnd(channel);
+
+		ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+		TarArchiveUtil.Entry entry = TarArchiveUtil.readEntry(inputStream);
+		assertNotNull(entry);
+		assertTrue(entry.isFile());
+		assertEquals("first.service", entry.name());
+		assertEquals("[Unit]\nDescription=first\n", new String(TarArchiveUtil.readContent(inputStream, entry), StandardCharsets.UTF_8));
+		entry = TarArchiveUtil.readEntry(inputStream);
+		assertNotNull(entry);
+		assertEquals("second.service", entry.name());
+		assertEquals(TarArchiveUtil.BLOCK_SIZE + 1, entry.size());
+		TarArchiveUtil.skipContent(inputStream, entry);
+		assertNull(TarArchiveUtil.readEntry(inputStream));
+	}
+
+	@Test
+	void writeAndReadLongName(@TempDir Path dir) throws IOException {
+		String name = "服务".repeat(20) + "x".repeat(150) + ".service";
+		Path file = Files.writeString(dir.resolve("long.service"), "[Unit]\n");
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		WritableByteChannel channel = Channels.newChannel(outputStream);
+		TarArchiveUtil.writeFileEntry(channel, name, file);
+		TarArchiveUtil.writeFileEntry(channel, "short.service", file);
+		TarArchiveUtil.writeEnd(channel);
+
+		ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+		TarArchiveUtil.Entry entry = TarArchiveUtil.readEntry(inputStream);
+		assertNotNull(entry);
+		assertTrue(entry.isFile());
+		assertEquals(name, entry.name());
+		assertEquals("[Unit]\n", new String(TarArchiveUtil.readContent(inputStream, entry), StandardCharsets.UTF_8));
+		entry = TarArchiveUtil.readEntry(inputStream);
+		assertNotNull(entry);
+		assertEquals("short.service", entry.name());
+		TarArchiveUtil.skipContent(inputStream, entry);
+		assertNull(TarArchiveUtil.readEntry(inputStream));
+	}
+}
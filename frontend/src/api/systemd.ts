@@ -1,16 +1,62 @@
 import type { ResponseData } from '@/types/response'
-import type { ServiceUnitInfo, ServiceUnitOperation, ServiceFile } from '@/types/systemd'
+import type {
+  ServiceUnitInfo,
+  ServiceUnitOperation,
+  ServiceFile,
+  ServiceUnitColumns,
+  ImportResult,
+} from '@/types/systemd'
 import request from '@/utils/request'
 
+/** 服务单元列表优先使用列式 CBOR，服务端出错时仍返回 JSON */
+const SERVICE_UNITS_ACCEPT = 'application/cbor, application/json;q=0.9'
+
+/** 将列式编码还原为服务单元列表
+ * @param resp 列式编码的响应
+ */
+const toServiceUnits = (
+  resp: ResponseData<ServiceUnitColumns | ServiceUnitInfo[] | null>,
+): ResponseData<ServiceUnitInfo[]> => {
+  const columns = resp.data
+  if (columns === null || Array.isArray(columns)) {
+    return resp as ResponseData<ServiceUnitInfo[]>
+  }
+  const { count, unitFileSuffix, unitFile, state, preset, owner } = columns
+  const serviceUnits = new Array<ServiceUnitInfo>(count)
+  for (let i = 0; i < count; i++) {
+    serviceUnits[i] = {
+      unitFile: unitFile[i]! + unitFileSuffix,
+      state: state.dictionary[state.codes[i]!]!,
+      preset: preset.dictionary[preset.codes[i]!]!,
+      owner: owner.dictionary[owner.codes[i]!],
+    }
+  }
+  return { ...resp, data: serviceUnits }
+}
+
 /** 获取服务单元列表
  * @param level 运行级别
  */
-export const getServiceUnits = (level: string): Promise<ResponseData<ServiceUnitInfo[]>> => {
-  return request({
+export const getServiceUnits = async (level: string): Promise<ResponseData<ServiceUnitInfo[]>> => {
+  const resp = await request<ServiceUnitColumns | ServiceUnitInfo[] | null>({
     method: 'get',
     url: '/systemd/service',
     params: { level },
+    headers: { Accept: SERVICE_UNITS_ACCEPT },
+    responseType: 'arraybuffer',
   })
+  return toServiceUnits(resp)
+}
+
+/** 获取所有活跃用户的用户级服务单元列表 */
+export const getAllUserServiceUnits = async (): Promise<ResponseData<ServiceUnitInfo[]>> => {
+  const resp = await request<ServiceUnitColumns | ServiceUnitInfo[] | null>({
+    method: 'get',
+    url: '/systemd/service/users',
+    headers: { Accept: SERVICE_UNITS_ACCEPT },
+    responseType: 'arraybuffer',
+  })
+  return toServiceUnits(resp)
 }
 
 /** 操作服务单元
@@ -44,3 +90,28 @@ export const uploadService = (serviceFile: ServiceFile): Promise<ResponseData<bo
     data: serviceFile,
   })
 }
+
+/** 获取服务文件导出地址（tar 归档）
+ * @param level 运行级别
+ */
+export const getExportServicesUrl = (level: string): string => {
+  return `/api/systemd/service/export?level=${encodeURIComponent(level)}`
+}
+
+/** 导入服务文件（tar 归档）
+ * @param level 运行级别
+ * @param archive 归档文件
+ */
+export const importServices = (
+  level: string,
+  archive: File,
+): Promise<ResponseData<ImportResult>> => {
+  return request({
+    method: 'post',
+    url: '/systemd/service/import',
+    params: { level },
+    headers: { 'Content-Type': 'application/x-tar' },
+    data: archive,
+    timeout: 0,
+  })
+}
@@ -6,6 +6,32 @@ export type ServiceUnitInfo = {
   state: string
   /** 服务运行状态 */
   preset: string
+  /** 所属用户（仅多用户列表） */
+  owner?: string | null
+}
+
+/** 字典编码的列 */
+export type DictionaryColumn = {
+  /** 字典 */
+  dictionary: (string | null)[]
+  /** 每行在字典中的下标 */
+  codes: Uint8Array | number[]
+}
+
+/** 列式编码的服务单元列表 */
+export type ServiceUnitColumns = {
+  /** 行数 */
+  count: number
+  /** 所有服务文件名称共有的后缀 */
+  unitFileSuffix: string
+  /** 去掉公共后缀的服务文件名称 */
+  unitFile: string[]
+  /** 服务加载状态 */
+  state: DictionaryColumn
+  /** 服务运行状态 */
+  preset: DictionaryColumn
+  /** 所属用户 */
+  owner: DictionaryColumn
 }
 
 /** 服务单元操作 */
@@ -27,3 +53,13 @@ export type ServiceFile = {
   /** 文件内容 */
   content: string
 }
+
+/** 服务文件导入结果 */
+export type ImportResult = {
+  /** 成功导入的服务名 */
+  imported: string[]
+  /** 已存在而跳过的服务名 */
+  skipped: string[]
+  /** 未通过校验而拒绝的服务名 */
+  rejected: string[]
+}
@@ -0,0 +1,97 @@
+/** CBOR 主类型 */
+const MAJOR_UNSIGNED = 0
+const MAJOR_NEGATIVE = 1
+const MAJOR_BYTES = 2
+const MAJOR_TEXT = 3
+const MAJOR_ARRAY = 4
+const MAJOR_MAP = 5
+const MAJOR_SIMPLE = 7
+
+/** 解码 CBOR，仅支持服务端用到的类型：整数、字节串、文本、数组、映射、布尔和 null
+ * @param buffer 二进制数据
+ */
+export const decodeCbor = (buffer: ArrayBuffer): unknown => {
+  const view = new DataView(buffer)
+  const bytes = new Uint8Array(buffer)
+  const textDecoder = new TextDecoder()
+  let offset = 0
+
+  // 读取长度或整数值
+  const readLength = (info: number): number => {
+    if (info < 24) {
+      return info
+    }
+    let value: number
+    switch (info) {
+      case 24:
+        value = view.getUint8(offset)
+        offset += 1
+        break
+      case 25:
+        value = view.getUint16(offset)
+        offset += 2
+        break
+      case 26:
+        value = view.getUint32(offset)
+        offset += 4
+        break
+      case 27:
+        value = Number(view.getBigUint64(offset))
+        offset += 8
+        break
+      default:
+        throw new Error(`不支持的 CBOR 长度: ${info}`)
+    }
+    return value
+  }
+
+  const readItem = (): unknown => {
+    const initial = view.getUint8(offset)
+    offset += 1
+    const info = initial & 0x1f
+    switch (initial >> 5) {
+      case MAJOR_UNSIGNED:
+        return readLength(info)
+      case MAJOR_NEGATIVE:
+        return -1 - readLength(info)
+      case MAJOR_BYTES: {
+        const length = readLength(info)
+        const value = bytes.subarray(offset, offset + length)
+        offset += length
+        return value
+      }
+      case MAJOR_TEXT: {
+        const length = readLength(info)
+        const value = textDecoder.decode(bytes.subarray(offset, offset + length))
+        offset += length
+        return value
+      }
+      case MAJOR_ARRAY: {
+        const length = readLength(info)
+        const items = new Array<unknown>(length)
+        for (let i = 0; i < length; i++) {
+          items[i] = readItem()
+        }
+        return items
+      }
+      case MAJOR_MAP: {
+        const length = readLength(info)
+        const map: Record<string, unknown> = {}
+        for (let i = 0; i < length; i++) {
+          const key = readItem() as string
+          map[key] = readItem()
+        }
+        return map
+      }
+      case MAJOR_SIMPLE:
+        if (info === 20) return false
+        if (info === 21) return true
+        if (info === 22 || info === 23) return null
+        throw new Error(`不支持的 CBOR 简单值: ${info}`)
+      default:
+        throw new Error(`不支持的 CBOR 类型: ${initial >> 5}`)
+    }
+  }
+
+  return readItem()
+}
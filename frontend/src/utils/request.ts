@@ -1,15 +1,28 @@
-import axios, { type AxiosInstance, type AxiosRequestConfig } from 'axios'
+import axios, { type AxiosInstance, type AxiosRequestConfig, type AxiosResponse } from 'axios'
 import type { ResponseData } from '@/types/response'
 import { ElMessage } from 'element-plus'
+import { decodeCbor } from '@/utils/cbor'
 
 const instance: AxiosInstance = axios.create({
   baseURL: '/api',
   timeout: 10000,
 })
 
+// 解析响应数据，二进制响应按 Content-Type 解码为 CBOR 或 JSON
+const parseResponseData = (response: AxiosResponse): ResponseData => {
+  if (!(response.data instanceof ArrayBuffer)) {
+    return response.data
+  }
+  const contentType = String(response.headers['content-type'] ?? '')
+  if (contentType.includes('application/cbor')) {
+    return decodeCbor(response.data) as ResponseData
+  }
+  return JSON.parse(new TextDecoder().decode(response.data))
+}
+
 instance.interceptors.response.use(
   (response): any => {
-    const resp = response.data as ResponseData
+    const resp = parseResponseData(response)
     if (resp.code === 500) {
       ElMessage.error(resp.message)
       return Promise.reject(resp.message)